@@ -0,0 +1,189 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * 書式パターンをキーとして値を、上限の件数まで保持するキャッシュ。
+ * <p>上限を超えた場合は、CLOCK方式（セカンドチャンス方式）で参照されていないものから削除します。</p>
+ * <ul>
+ *   <li>参照時は、エントリの参照フラグを立てるのみで、ロックを取得しません。</li>
+ *   <li>追加時は、ロックを取得して登録順の輪に追加し、上限を超えた分を削除します。
+ *       <br>参照フラグが立っているエントリはフラグを下ろして輪の末尾に戻すため、頻繁に参照される書式は残ります。</li>
+ * </ul>
+ *
+ * @param <V> 保持する値のタイプ。
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+class BoundedPatternCache<V> {
+
+    /**
+     * 書式パターンとエントリのマップ
+     */
+    private final ConcurrentMap<String, Entry<V>> entryMap = new ConcurrentHashMap<>();
+
+    /**
+     * 削除する順番を決めるための、エントリの輪。
+     * <p>{@link #evictionLock}で同期する。
+     */
+    private final Deque<Entry<V>> clock = new ArrayDeque<>();
+
+    private final Object evictionLock = new Object();
+
+    /**
+     * 保持する件数の上限
+     */
+    private volatile int capacity;
+
+    /**
+     * 上限の件数を指定してインスタンスを作成する。
+     * @param capacity 保持する件数の上限。
+     * @throws IllegalArgumentException {@literal capacity < 0}
+     */
+    BoundedPatternCache(final int capacity) {
+        ArgUtils.notMin(capacity, 0, "capacity");
+        this.capacity = capacity;
+    }
+
+    /**
+     * 書式パターンに対する値を取得する。
+     * @param formatPattern 書式パターン。
+     * @return 登録されていない場合は、nullを返す。
+     */
+    V get(final String formatPattern) {
+
+        final Entry<V> entry = entryMap.get(formatPattern);
+        if(entry == null) {
+            return null;
+        }
+
+        if(!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 書式パターンに対する値が登録されているかどうか。
+     * @param formatPattern 書式パターン。
+     * @return true:登録されている。
+     */
+    boolean containsKey(final String formatPattern) {
+        return entryMap.containsKey(formatPattern);
+    }
+
+    /**
+     * 書式パターンに対する値を登録する。
+     * <p>上限の件数を超えた場合は、参照されていないものから削除します。
+     * @param formatPattern 書式パターン。
+     * @param value 登録する値。
+     * @return 以前に登録された値。登録されていなければ、nullを返す。
+     */
+    V put(final String formatPattern, final V value) {
+
+        synchronized(evictionLock) {
+            final Entry<V> entry = new Entry<>(formatPattern, value);
+            final Entry<V> oldEntry = entryMap.put(formatPattern, entry);
+            if(oldEntry != null) {
+                clock.remove(oldEntry);
+            }
+
+            clock.addLast(entry);
+            evict();
+
+            return oldEntry == null ? null : oldEntry.value;
+        }
+    }
+
+    /**
+     * 上限の件数を超えた分を削除する。
+     */
+    private void evict() {
+
+        while(entryMap.size() > capacity) {
+            final Entry<V> entry = clock.pollFirst();
+            if(entry == null) {
+                break;
+            }
+
+            if(entry.referenced) {
+                // 参照されている場合は、もう一周の猶予を与える
+                entry.referenced = false;
+                clock.addLast(entry);
+                continue;
+            }
+
+            entryMap.remove(entry.formatPattern, entry);
+        }
+    }
+
+    /**
+     * 全てのエントリを削除する。
+     */
+    void clear() {
+        synchronized(evictionLock) {
+            entryMap.clear();
+            clock.clear();
+        }
+    }
+
+    /**
+     * 登録されている件数を取得する。
+     * @return 登録されている件数。
+     */
+    int size() {
+        return entryMap.size();
+    }
+
+    /**
+     * 保持する件数の上限を取得する。
+     * @return 保持する件数の上限。
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 保持する件数の上限を設定する。
+     * <p>現在の件数が上限を超える場合は、超えた分を削除します。
+     * @param capacity 保持する件数の上限。
+     * @throws IllegalArgumentException {@literal capacity < 0}
+     */
+    void setCapacity(final int capacity) {
+        ArgUtils.notMin(capacity, 0, "capacity");
+
+        synchronized(evictionLock) {
+            this.capacity = capacity;
+            evict();
+        }
+    }
+
+    /**
+     * キャッシュのエントリ
+     */
+    private static final class Entry<V> {
+
+        private final String formatPattern;
+
+        private final V value;
+
+        /**
+         * 前回の削除の判定以降に参照されたかどうか。
+         * <p>近似的な判定に利用するため、同期しない。
+         */
+        private boolean referenced;
+
+        private Entry(final String formatPattern, final V value) {
+            this.formatPattern = formatPattern;
+            this.value = value;
+        }
+    }
+
+}
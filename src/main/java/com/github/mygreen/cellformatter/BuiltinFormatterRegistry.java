@@ -0,0 +1,170 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * 組み込み書式のフォーマッタを、JVM内で共有するレジストリ。
+ * <p>組み込み書式は、インデックスや書式パターンごとに最初に参照された際に1度だけ解析し、
+ *    全ての{@link FormatterResolver}のインスタンスで同じフォーマッタを共有します。</p>
+ * <p>保持するマップは変更できないため、複数のスレッドから同時に参照できます。</p>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+final class BuiltinFormatterRegistry {
+
+    /**
+     * 組み込み書式を作成するためのインスタンス
+     */
+    private final FormatterResolver compiler;
+
+    /**
+     * 書式のインデックスとフォーマッターのホルダーのマップ
+     */
+    private final Map<Short, LazyFormatter> indexFormatterMap;
+
+    /**
+     * 書式のパターンとフォーマッターのホルダーのマップ
+     */
+    private final Map<String, LazyFormatter> patternFormatterMap;
+
+    private BuiltinFormatterRegistry() {
+
+        this.compiler = new FormatterResolver(false, false);
+
+        // 定義されている書式の名前のみを読み込み、フォーマッタは作成しない
+        final Map<Short, LazyFormatter> indexMap = new HashMap<>();
+        for(int i=0; i <= FormatterResolver.MAX_BUILTIN_FORMAT_INDEX; i++) {
+            final String name = String.valueOf(i);
+            if(FormatterResolver.getDefaultFormatPattern(name) != null) {
+                indexMap.put((short)i, new LazyFormatter(name));
+            }
+        }
+
+        final Map<String, LazyFormatter> patternMap = new HashMap<>();
+        for(String name : FormatterResolver.SPECIAL_FORMAT_NAMES) {
+            final String pattern = FormatterResolver.getDefaultFormatPattern(name);
+            if(pattern != null) {
+                patternMap.put(pattern, new LazyFormatter(name));
+            }
+        }
+
+        this.indexFormatterMap = Collections.unmodifiableMap(indexMap);
+        this.patternFormatterMap = Collections.unmodifiableMap(patternMap);
+    }
+
+    /**
+     * 共有するインスタンスを取得する。
+     * @return 組み込み書式を登録済みのインスタンス。
+     */
+    static BuiltinFormatterRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * インデックス番号に対する組み込み書式が定義されているかどうか。
+     * <p>フォーマッタは作成しません。
+     * @param formatIndex 書式のインデックス番号。
+     * @return true:定義されている場合。
+     */
+    boolean containsIndex(final short formatIndex) {
+        return indexFormatterMap.containsKey(formatIndex);
+    }
+
+    /**
+     * 書式パターンに対する組み込み書式が定義されているかどうか。
+     * <p>フォーマッタは作成しません。
+     * @param formatPattern 書式パターン。
+     * @return true:定義されている場合。
+     */
+    boolean containsPattern(final String formatPattern) {
+        return patternFormatterMap.containsKey(formatPattern);
+    }
+
+    /**
+     * インデックス番号に対する組み込み書式のフォーマッタを取得する。
+     * <p>最初に参照された際に、フォーマッタを作成します。
+     * @param formatIndex 書式のインデックス番号。
+     * @return 定義されていない場合は、nullを返す。
+     */
+    CellFormatter getFormatter(final short formatIndex) {
+        final LazyFormatter holder = indexFormatterMap.get(formatIndex);
+        return holder == null ? null : holder.get();
+    }
+
+    /**
+     * 書式パターンに対する組み込み書式のフォーマッタを取得する。
+     * <p>最初に参照された際に、フォーマッタを作成します。
+     * @param formatPattern 書式パターン。
+     * @return 定義されていない場合は、nullを返す。
+     */
+    CellFormatter getFormatter(final String formatPattern) {
+        final LazyFormatter holder = patternFormatterMap.get(formatPattern);
+        return holder == null ? null : holder.get();
+    }
+
+    /**
+     * 組み込み書式のインデックス番号の一覧を取得する。
+     * @return 変更できない一覧。
+     */
+    Iterable<Short> getFormatIndexes() {
+        return indexFormatterMap.keySet();
+    }
+
+    /**
+     * 組み込み書式の書式パターンの一覧を取得する。
+     * @return 変更できない一覧。
+     */
+    Iterable<String> getFormatPatterns() {
+        return patternFormatterMap.keySet();
+    }
+
+    /**
+     * 最初に参照された際に、組み込み書式のフォーマッタを作成するホルダー。
+     * <p>複数のスレッドから同時に参照された場合でも、フォーマッタは1度だけ作成します。</p>
+     */
+    private final class LazyFormatter {
+
+        /**
+         * 書式の名前
+         */
+        private final String name;
+
+        private volatile CellFormatter formatter;
+
+        private LazyFormatter(final String name) {
+            this.name = name;
+        }
+
+        private CellFormatter get() {
+
+            CellFormatter result = formatter;
+            if(result != null) {
+                return result;
+            }
+
+            synchronized(this) {
+                result = formatter;
+                if(result == null) {
+                    result = compiler.createDefaultFormatter(name, FormatterResolver.DEFAULT_FORMAT_LOCALES);
+                    formatter = result;
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * 最初に参照された際に、インスタンスを作成するためのクラス。
+     */
+    private static final class Holder {
+
+        private static final BuiltinFormatterRegistry INSTANCE = new BuiltinFormatterRegistry();
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
+
+/**
+ * {@link Calendar}型の日時の値を直接扱うための仮想的なセル。
+ * <p>カレンダーが持つタイムゾーンでの年月日、時分秒の値をそのままフォーマットします。
+ *    {@link DateCell}と異なり、実行環境のタイムゾーンによる補正は行いません。</p>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class CalendarCell extends ObjectCell<Calendar> {
+    
+    /** 日付の始まりが1904年開始かどうか */
+    private final boolean dateStart1904;
+    
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の日時。
+     * @param formatIndex 書式のインデックス番号。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * 
+     */
+    public CalendarCell(final Calendar value, final short formatIndex) {
+        this(value, formatIndex, false);
+    }
+    
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、{@literal 0}となります。
+     * @param value フォーマット対象の日時。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CalendarCell(final Calendar value, final String formatPattern) {
+        this(value, formatPattern, false);
+    }
+    
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の日時。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     * 
+     */
+    public CalendarCell(final Calendar value, final short formatIndex, final String formatPattern) {
+        this(value, formatIndex, formatPattern, false);
+    }
+    
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の日時。
+     * @param formatIndex 書式のインデックス番号。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * 
+     */
+    public CalendarCell(final Calendar value, final short formatIndex, final boolean dateStart1904) {
+        super(value, formatIndex);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、{@literal 0}となります。
+     * @param value フォーマット対象の日時。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CalendarCell(final Calendar value, final String formatPattern, final boolean dateStart1904) {
+        super(value, formatPattern);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の値。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException fommatPattern is empty.
+     * 
+     */
+    public CalendarCell(final Calendar value, final short formatIndex, final String formatPattern, final boolean dateStart1904) {
+        super(value, formatIndex, formatPattern);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    @Override
+    public boolean isNumber() {
+        return true;
+    }
+    
+    @Override
+    public Date getDateCellValue() {
+        return new Date(getLocalTime());
+    }
+    
+    @Override
+    public double getNumberCellValue() {
+        return ExcelDateUtils.convertExcelNumber(getLocalTime(), isDateStart1904());
+    }
+    
+    /**
+     * カレンダーのタイムゾーンでの日時を、標準時の時間（単位はミリ秒）として取得する。
+     * @return タイムゾーンとサマータイムのオフセットを加算した時間。
+     */
+    private long getLocalTime() {
+        return value.getTimeInMillis() + value.get(Calendar.ZONE_OFFSET) + value.get(Calendar.DST_OFFSET);
+    }
+    
+    @Override
+    public boolean isDateStart1904() {
+        return dateStart1904;
+    }
+}
@@ -1,12 +1,15 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
 import java.util.Locale;
 
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
 
 /**
  * セルのフォーマッタの共通インタフェース
  *
- * @version 0.10
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -31,6 +34,61 @@ public abstract class CellFormatter {
      */
     public abstract CellFormatResult format(final CommonCell cell, final Locale locale);
 
+    /**
+     * セルの値をロケールを指定してフォーマットし、結果の文字列を出力先に追加する。
+     * <p>標準では、{@link #format(CommonCell, Locale)}の結果の文字列を追加します。
+     * @since 0.11
+     * @param cell フォーマット対象のセル。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @param out フォーマットした文字列の出力先。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     * @throws IllegalArgumentException {@literal cell == null || out == null.}
+     */
+    public void formatTo(final CommonCell cell, final Locale locale, final Appendable out) throws IOException {
+        ArgUtils.notNull(out, "out");
+        out.append(format(cell, locale).getText());
+    }
+
+    /**
+     * セルを経由せずに、数値をロケールを指定してフォーマットする。
+     * <p>標準では、仮想的な数値のセル{@link NumberCell}を作成してフォーマットします。
+     *    数値の書式のみを持つフォーマッタは、セルを作成せずに処理するよう上書きします。
+     * @since 0.11
+     * @param value フォーマット対象の数値。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final double value, final Locale locale) {
+        return format(new NumberCell<Double>(value, (short)0), locale);
+    }
+
+    /**
+     * セルを経由せずに、数値をロケールを指定してフォーマットし、結果を文字列として取得する。
+     * @since 0.11
+     * @param value フォーマット対象の数値。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @return フォーマットした文字列。
+     */
+    public String formatAsString(final double value, final Locale locale) {
+        return format(value, locale).getText();
+    }
+
+    /**
+     * セルを経由せずに、数値をロケールを指定してフォーマットし、結果の文字列を出力先に追加する。
+     * <p>標準では、{@link #formatAsString(double, Locale)}の結果の文字列を追加します。
+     *    数値の書式のみを持つフォーマッタは、文字列を作成せずに各項を直接出力先に追加するよう上書きします。
+     * @since 0.11
+     * @param value フォーマット対象の数値。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @param out フォーマットした文字列の出力先。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     * @throws IllegalArgumentException {@literal out == null.}
+     */
+    public void formatTo(final double value, final Locale locale, final Appendable out) throws IOException {
+        ArgUtils.notNull(out, "out");
+        out.append(formatAsString(value, locale));
+    }
+
     /**
      * 書式を取得する
      * @since 0.10
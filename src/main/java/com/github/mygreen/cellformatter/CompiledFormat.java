@@ -0,0 +1,398 @@
+package com.github.mygreen.cellformatter;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * 書式を解決済みのフォーマッタを保持し、値を直接フォーマットするクラス。
+ * <p>{@link ObjectCellFormatter#compile(String, Locale)}などから取得します。
+ *    フォーマットの度に{@link FormatterResolver}から書式を検索しないため、同じ書式で大量の値をフォーマットする場合に利用します。</p>
+ * <p>インスタンスは不変であり、複数のスレッドから同時に利用できます。</p>
+ *
+ * <pre class="highlight"><code class="java">
+ * ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+ * CompiledFormat format = cellFormatter.compile("#,##0.00", Locale.JAPANESE);
+ *
+ * for(double value : values) {
+ *     String text = format.formatAsString(value);
+ * }
+ *
+ * // 列単位でまとめてフォーマットする場合
+ * String[] texts = new String[values.length];
+ * format.formatColumn(values, texts);
+ * </code></pre>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public final class CompiledFormat {
+
+    /**
+     * 列を並列にフォーマットする場合に、1つのタスクで処理する要素数の上限
+     */
+    private static final int COLUMN_TASK_THRESHOLD = 4096;
+
+    /**
+     * 解決済みのフォーマッタ
+     */
+    private final CellFormatter formatter;
+
+    /**
+     * 書式のインデックス番号。書式から作成した場合は{@literal -1}。
+     */
+    private final short formatIndex;
+
+    /**
+     * 書式のパターン
+     */
+    private final String formatPattern;
+
+    /**
+     * フォーマットする際のロケール
+     */
+    private final Locale locale;
+
+    /**
+     * インスタンスを作成する。
+     * @param formatter 解決済みのフォーマッタ。
+     * @param formatIndex 書式のインデックス番号。書式から作成した場合は{@literal -1}。
+     * @param formatPattern 書式のパターン。
+     * @param locale フォーマットする際のロケール。
+     * @throws IllegalArgumentException {@literal formatter == null || locale == null.}
+     */
+    CompiledFormat(final CellFormatter formatter, final short formatIndex, final String formatPattern, final Locale locale) {
+        ArgUtils.notNull(formatter, "formatter");
+        ArgUtils.notNull(locale, "locale");
+
+        this.formatter = formatter;
+        this.formatIndex = formatIndex;
+        this.formatPattern = formatPattern;
+        this.locale = locale;
+    }
+
+    /**
+     * 数値をフォーマットする。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final double value) {
+        return formatter.format(value, locale);
+    }
+
+    /**
+     * 数値をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final double value) {
+        return formatter.formatAsString(value, locale);
+    }
+
+    /**
+     * 数値をフォーマットし、結果の文字列を出力先に追加する。
+     * <p>数値の書式の場合は、フォーマットした文字列を作成せずに、各項を直接出力先に追加します。
+     * @param out フォーマットした文字列の出力先。
+     * @param value フォーマット対象の値。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     * @throws IllegalArgumentException {@literal out == null.}
+     */
+    public void formatTo(final Appendable out, final double value) throws IOException {
+        ArgUtils.notNull(out, "out");
+        formatter.formatTo(value, locale, out);
+    }
+
+    /**
+     * 数値の列をまとめてフォーマットし、結果の文字列を同じ位置に格納する。
+     * <p>書式の判定に利用するセクションの取得と、文字列を組み立てるバッファの作成は、列ごとに1度だけ行います。
+     *    数値の変換と各項のフォーマットは、値ごとに行います。</p>
+     * @param in フォーマット対象の値。
+     * @param out フォーマットした文字列の格納先。
+     * @throws IllegalArgumentException {@literal in == null || out == null.}
+     * @throws IllegalArgumentException {@literal out.length < in.length.}
+     */
+    public void formatColumn(final double[] in, final String[] out) {
+        checkColumn(in, out, in == null ? 0 : in.length);
+        formatColumnRange(in, null, out, 0, in.length, getNumberFormatterSections());
+    }
+
+    /**
+     * 数値の列をまとめてフォーマットし、結果の文字列を同じ位置に格納する。
+     * @param in フォーマット対象の値。
+     * @param out フォーマットした文字列の格納先。
+     * @throws IllegalArgumentException {@literal in == null || out == null.}
+     * @throws IllegalArgumentException {@literal out.length < in.length.}
+     */
+    public void formatColumn(final long[] in, final String[] out) {
+        checkColumn(in, out, in == null ? 0 : in.length);
+        formatColumnRange(null, in, out, 0, in.length, getNumberFormatterSections());
+    }
+
+    /**
+     * 数値の列を、プールを利用して並列にフォーマットし、結果の文字列を同じ位置に格納する。
+     * <p>列を一定の要素数ごとに分割して処理します。文字列を組み立てるバッファは、分割した範囲ごとに作成します。</p>
+     * @param in フォーマット対象の値。
+     * @param out フォーマットした文字列の格納先。
+     * @param pool 並列処理に利用するプール。
+     * @throws IllegalArgumentException {@literal in == null || out == null || pool == null.}
+     * @throws IllegalArgumentException {@literal out.length < in.length.}
+     */
+    public void formatColumn(final double[] in, final String[] out, final ForkJoinPool pool) {
+        checkColumn(in, out, in == null ? 0 : in.length);
+        ArgUtils.notNull(pool, "pool");
+        pool.invoke(new ColumnTask(in, null, out, 0, in.length, getNumberFormatterSections()));
+    }
+
+    /**
+     * 数値の列を、プールを利用して並列にフォーマットし、結果の文字列を同じ位置に格納する。
+     * <p>列を一定の要素数ごとに分割して処理します。文字列を組み立てるバッファは、分割した範囲ごとに作成します。</p>
+     * @param in フォーマット対象の値。
+     * @param out フォーマットした文字列の格納先。
+     * @param pool 並列処理に利用するプール。
+     * @throws IllegalArgumentException {@literal in == null || out == null || pool == null.}
+     * @throws IllegalArgumentException {@literal out.length < in.length.}
+     */
+    public void formatColumn(final long[] in, final String[] out, final ForkJoinPool pool) {
+        checkColumn(in, out, in == null ? 0 : in.length);
+        ArgUtils.notNull(pool, "pool");
+        pool.invoke(new ColumnTask(null, in, out, 0, in.length, getNumberFormatterSections()));
+    }
+
+    private static void checkColumn(final Object in, final String[] out, final int length) {
+        ArgUtils.notNull(in, "in");
+        ArgUtils.notNull(out, "out");
+        ArgUtils.notMin(out.length, length, "out.length");
+    }
+
+    /**
+     * 数値を判定するセクションを取得する。
+     * @return セクションを直接判定できない場合は、nullを返す。
+     */
+    private ConditionNumberFormatter[] getNumberFormatterSections() {
+
+        CellFormatter target = formatter;
+        if(target instanceof LocaleSwitchFormatter) {
+            target = ((LocaleSwitchFormatter) target).getCellFormatter(locale);
+        }
+
+        if(target instanceof CustomFormatter) {
+            return ((CustomFormatter) target).getNumberFormatterSections();
+        }
+
+        return null;
+    }
+
+    /**
+     * 列の指定した範囲をフォーマットする。
+     * @param doubles double型の値。long型の値を処理する場合はnull。
+     * @param longs long型の値。double型の値を処理する場合はnull。
+     * @param out フォーマットした文字列の格納先。
+     * @param from 開始位置(この位置を含む)。
+     * @param to 終了位置(この位置を含まない)。
+     * @param sections 数値を判定するセクション。nullの場合は、フォーマッタに判定を任せる。
+     */
+    private void formatColumnRange(final double[] doubles, final long[] longs, final String[] out,
+            final int from, final int to, final ConditionNumberFormatter[] sections) {
+
+        final StringBuilder buffer = new StringBuilder();
+        try {
+            for(int i=from; i < to; i++) {
+                final double value = (doubles != null ? doubles[i] : longs[i]);
+                out[i] = formatNumber(value, sections, buffer);
+            }
+        } catch(IOException e) {
+            // StringBuilderへの追加では発生しない
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 列の1つの値をフォーマットする。
+     * @param value フォーマット対象の値。
+     * @param sections 数値を判定するセクション。nullの場合は、フォーマッタに判定を任せる。
+     * @param buffer 文字列を組み立てるバッファ。列の範囲内で使い回す。
+     * @return フォーマットした文字列。
+     * @throws IOException バッファへの書き込みに失敗した場合。
+     */
+    private String formatNumber(final double value, final ConditionNumberFormatter[] sections,
+            final StringBuilder buffer) throws IOException {
+
+        if(sections != null) {
+            for(ConditionNumberFormatter section : sections) {
+                if(section.isMatch(value)) {
+                    buffer.setLength(0);
+                    section.formatTo(value, locale, buffer);
+                    return buffer.toString();
+                }
+            }
+        }
+
+        return formatter.formatAsString(value, locale);
+    }
+
+    /**
+     * 日付をフォーマットする。
+     * @param value フォーマット対象の値。タイムゾーンを含んだ値を指定します。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public CellFormatResult format(final Date value) {
+        final DateCell cell = (formatIndex >= 0 ? new DateCell(value, formatIndex) : new DateCell(value, formatPattern));
+        return formatter.format(cell, locale);
+    }
+
+    /**
+     * 日付をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。タイムゾーンを含んだ値を指定します。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public String formatAsString(final Date value) {
+        return format(value).getText();
+    }
+
+    /**
+     * {@link Calendar}型の日時をフォーマットする。
+     * @param value フォーマット対象の値。カレンダーのタイムゾーンでの日時をフォーマットします。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public CellFormatResult format(final Calendar value) {
+        final CalendarCell cell = (formatIndex >= 0 ? new CalendarCell(value, formatIndex) : new CalendarCell(value, formatPattern));
+        return formatter.format(cell, locale);
+    }
+
+    /**
+     * {@link Calendar}型の日時をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。カレンダーのタイムゾーンでの日時をフォーマットします。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public String formatAsString(final Calendar value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 文字列をフォーマットする。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public CellFormatResult format(final String value) {
+        final TextCell cell = (formatIndex >= 0 ? new TextCell(value, formatIndex) : new TextCell(value, formatPattern));
+        return formatter.format(cell, locale);
+    }
+
+    /**
+     * 文字列をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public String formatAsString(final String value) {
+        return format(value).getText();
+    }
+
+    /**
+     * ブール値をフォーマットする。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final boolean value) {
+        final BooleanCell cell = (formatIndex >= 0 ? new BooleanCell(value, formatIndex) : new BooleanCell(value, formatPattern));
+        return formatter.format(cell, locale);
+    }
+
+    /**
+     * ブール値をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final boolean value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 解決済みのフォーマッタを取得する。
+     * @return フォーマッタ。
+     */
+    public CellFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * 書式のインデックス番号を取得する。
+     * @return 書式から作成した場合は{@literal -1}を返す。
+     */
+    public short getFormatIndex() {
+        return formatIndex;
+    }
+
+    /**
+     * 書式のパターンを取得する。
+     * @return 書式のパターン。
+     */
+    public String getFormatPattern() {
+        return formatPattern;
+    }
+
+    /**
+     * フォーマットする際のロケールを取得する。
+     * @return ロケール。
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * 列の範囲を分割して、並列にフォーマットするタスク。
+     */
+    private final class ColumnTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] doubles;
+
+        private final long[] longs;
+
+        private final String[] out;
+
+        private final int from;
+
+        private final int to;
+
+        private final ConditionNumberFormatter[] sections;
+
+        private ColumnTask(final double[] doubles, final long[] longs, final String[] out,
+                final int from, final int to, final ConditionNumberFormatter[] sections) {
+            this.doubles = doubles;
+            this.longs = longs;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.sections = sections;
+        }
+
+        @Override
+        protected void compute() {
+
+            if(to - from <= COLUMN_TASK_THRESHOLD) {
+                formatColumnRange(doubles, longs, out, from, to, sections);
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ColumnTask(doubles, longs, out, from, middle, sections),
+                    new ColumnTask(doubles, longs, out, middle, to, sections));
+        }
+
+    }
+
+}
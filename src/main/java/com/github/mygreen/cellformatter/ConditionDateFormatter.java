@@ -1,6 +1,9 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -10,7 +13,6 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.mygreen.cellformatter.callback.Callback;
 import com.github.mygreen.cellformatter.lang.ArgUtils;
 import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
 import com.github.mygreen.cellformatter.term.DateTerm;
@@ -20,7 +22,7 @@ import com.github.mygreen.cellformatter.term.Term;
 /**
  * ユーザ定義型の日時を解釈するフォーマッタ
  *
- * @version 0.10
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -28,11 +30,22 @@ public class ConditionDateFormatter extends ConditionFormatter {
 
     private static final Logger logger = LoggerFactory.getLogger(ConditionDateFormatter.class);
 
+    /**
+     * 日時の各項を処理する際のタイムゾーン（標準時）。
+     * <p>タイムゾーンの検索は同期化されているため、値ごとに検索しない。
+     */
+    private static final TimeZone GMT_ZONE = TimeZone.getTimeZone("GMT-00:00");
+
     /**
      * 日時の各項
      */
     private List<Term<Calendar>> terms = new CopyOnWriteArrayList<>();
 
+    /**
+     * 固定化した日時の各項。固定化されていない場合はnull。
+     */
+    private volatile Term<Calendar>[] termArray;
+
     public ConditionDateFormatter(final String pattern) {
         super(pattern);
     }
@@ -71,19 +84,26 @@ public class ConditionDateFormatter extends ConditionFormatter {
         ArgUtils.notNull(cell, "date");
 
         final Date date = cell.getDateCellValue();
-        final Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("GMT-00:00"));
+        final Calendar cal = Calendar.getInstance(GMT_ZONE);
         cal.setTime(date);
 
+        final boolean dateStart1904 = cell.isDateStart1904();
+
         // 各項の処理
         StringBuilder sb = new StringBuilder();
-        for(Term<Calendar> term : terms) {
-            final String formatValue;
-            if(term instanceof DateTerm) {
-                formatValue = ((DateTerm) term).format(cal, getLocale(), runtimeLocale, cell.isDateStart1904());
-            } else {
-                formatValue = term.format(cal, getLocale(), runtimeLocale);
+        final Term<Calendar>[] array = termArray;
+        if(array != null) {
+            for(int i=0; i < array.length; i++) {
+                final String formatValue = formatTerm(array[i], cal, runtimeLocale, dateStart1904);
+                sb.append(applyCallbacks(cal, formatValue, runtimeLocale, array[i]));
+            }
+
+        } else {
+            // 固定化されていない場合は、コピーを作成せずに順に参照する
+            for(Term<Calendar> term : terms) {
+                final String formatValue = formatTerm(term, cal, runtimeLocale, dateStart1904);
+                sb.append(applyCallbacks(cal, formatValue, runtimeLocale, term));
             }
-            sb.append(applyFormatCallback(cal, formatValue, runtimeLocale, term));
         }
 
         String value = sb.toString();
@@ -98,29 +118,49 @@ public class ConditionDateFormatter extends ConditionFormatter {
         return result;
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private String applyFormatCallback(final Calendar cal, final String str, final Locale runtimeLocale, Term<Calendar> term) {
+    /**
+     * {@inheritDoc}
+     * <p>各項の文字列を直接出力先に追加します。
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Appendable out) throws IOException {
+        ArgUtils.notNull(cell, "date");
 
-        String value = str;
+        final Calendar cal = Calendar.getInstance(GMT_ZONE);
+        cal.setTime(cell.getDateCellValue());
 
-        for(Callback callback : getCallbacks()) {
+        final boolean dateStart1904 = cell.isDateStart1904();
+        final boolean applyCallback = hasApplicableCallback(runtimeLocale);
 
-            final Locale locale;
-            if(getLocale() != null) {
-                locale = getLocale().getLocale();
-            } else {
-                locale = runtimeLocale;
+        final Term<Calendar>[] array = termArray;
+        if(array != null) {
+            for(int i=0; i < array.length; i++) {
+                final String formatValue = formatTerm(array[i], cal, runtimeLocale, dateStart1904);
+                out.append(applyCallback ? applyCallbacks(cal, formatValue, runtimeLocale, array[i]) : formatValue);
             }
 
-            if(!callback.isApplicable(locale)) {
-                continue;
+        } else {
+            for(Term<Calendar> term : terms) {
+                final String formatValue = formatTerm(term, cal, runtimeLocale, dateStart1904);
+                out.append(applyCallback ? applyCallbacks(cal, formatValue, runtimeLocale, term) : formatValue);
             }
-
-            value = callback.call(cal, value, locale, term);
         }
+    }
 
-        return value;
+    private String formatTerm(final Term<Calendar> term, final Calendar cal, final Locale runtimeLocale, final boolean dateStart1904) {
+        if(term instanceof DateTerm) {
+            return ((DateTerm) term).format(cal, getLocale(), runtimeLocale, dateStart1904);
+        } else {
+            return term.format(cal, getLocale(), runtimeLocale);
+        }
+    }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Override
+    protected void freezeTerms() {
+        final Term<Calendar>[] array = terms.toArray(new Term[terms.size()]);
+        this.terms = Collections.unmodifiableList(Arrays.asList(array));
+        this.termArray = array;
     }
 
     /**
@@ -128,6 +168,7 @@ public class ConditionDateFormatter extends ConditionFormatter {
      * @param term
      */
     public void addTerm(final Term<Calendar> term) {
+        checkNotFrozen();
         this.terms.add(term);
     }
 
@@ -136,6 +177,7 @@ public class ConditionDateFormatter extends ConditionFormatter {
      * @param terms
      */
     public void addAllTerms(final List<Term<Calendar>> terms) {
+        checkNotFrozen();
         this.terms.addAll(terms);
     }
 
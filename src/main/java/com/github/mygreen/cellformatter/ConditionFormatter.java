@@ -1,6 +1,9 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -8,13 +11,16 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import com.github.mygreen.cellformatter.callback.Callback;
 import com.github.mygreen.cellformatter.lang.MSColor;
 import com.github.mygreen.cellformatter.lang.MSLocale;
+import com.github.mygreen.cellformatter.term.Term;
 
 
 /**
  * Excelのユーザ定義の各条件式を表現するための抽象クラス。
  * <p>区切り文字';'で区切られたもの。
+ * <p>組み立てが終わったら{@link #freeze()}を呼び出して固定化します。
+ *    固定化した後は変更できず、各項やコールバックを配列から参照するため、複数のスレッドから同時に利用できます。</p>
  * 
- * @version 0.3
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -38,6 +44,12 @@ public abstract class ConditionFormatter {
     /** 処理後のコールバック */
     protected List<Callback<?>> callbacks = new CopyOnWriteArrayList<>();
     
+    /** 固定化した処理後のコールバック。固定化されていない場合はnull。 */
+    private volatile Callback<?>[] callbackArray;
+    
+    /** 固定化されたかどうか */
+    private volatile boolean frozen;
+    
     public ConditionFormatter(final String pattern) {
         this.pattern = pattern;
     }
@@ -73,6 +85,139 @@ public abstract class ConditionFormatter {
      */
     public abstract CellFormatResult format(CommonCell cell, Locale runtimeLocale);
     
+    /**
+     * ロケールを指定して値をフォーマットし、結果の文字列を出力先に追加する。
+     * <p>標準では、{@link #format(CommonCell, Locale)}の結果の文字列を追加します。
+     *    サブクラスでは、各項の文字列を直接出力先に追加するよう上書きします。
+     * @since 0.11
+     * @param cell フォーマット対象のセル。
+     * @param runtimeLocale 実行時のロケール。nullの場合は、実行環境のロケールが指定される。
+     * @param out フォーマットした文字列の出力先。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     */
+    public void formatTo(CommonCell cell, Locale runtimeLocale, Appendable out) throws IOException {
+        out.append(format(cell, runtimeLocale).getText());
+    }
+    
+    /**
+     * 実行時のロケールに対して、適用可能なコールバックがあるかどうか。
+     * <p>書式にロケールが指定されている場合は、書式のロケールで判定します。
+     * @since 0.11
+     * @param runtimeLocale 実行時のロケール。
+     * @return true:適用可能なコールバックがある。
+     */
+    protected boolean hasApplicableCallback(final Locale runtimeLocale) {
+        
+        final Locale locale = (getLocale() != null ? getLocale().getLocale() : runtimeLocale);
+        final Callback<?>[] array = callbackArray;
+        if(array != null) {
+            for(int i=0; i < array.length; i++) {
+                if(array[i].isApplicable(locale)) {
+                    return true;
+                }
+            }
+            
+        } else {
+            // 固定化されていない場合は、コピーを作成せずに順に参照する
+            for(Callback<?> callback : callbacks) {
+                if(callback.isApplicable(locale)) {
+                    return true;
+                }
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * 実行時のロケールに対して適用可能なコールバックを、登録した順に適用する。
+     * <p>書式にロケールが指定されている場合は、書式のロケールで判定します。
+     * @since 0.11
+     * @param data フォーマット対象の値。
+     * @param value フォーマットした文字列。
+     * @param runtimeLocale 実行時のロケール。
+     * @param term 処理対象の項。書式全体に適用する場合はnull。
+     * @return コールバックを適用した文字列。
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected String applyCallbacks(final Object data, final String value, final Locale runtimeLocale, final Term<?> term) {
+        
+        final Locale locale = (getLocale() != null ? getLocale().getLocale() : runtimeLocale);
+        String result = value;
+        
+        final Callback<?>[] array = callbackArray;
+        if(array != null) {
+            for(int i=0; i < array.length; i++) {
+                if(array[i].isApplicable(locale)) {
+                    result = ((Callback) array[i]).call(data, result, locale, term);
+                }
+            }
+            
+        } else {
+            // 固定化されていない場合は、コピーを作成せずに順に参照する
+            for(Callback callback : callbacks) {
+                if(callback.isApplicable(locale)) {
+                    result = callback.call(data, result, locale, term);
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * フォーマッタを固定化し、以降は変更できないようにする。
+     * <p>条件式やコールバック、各項のリストを配列に変換し、変更できないリストに置き換えます。
+     *    固定化した後に値を変更しようとすると、{@link IllegalStateException}がスローされます。</p>
+     * <p>既に固定化されている場合は、何もしません。</p>
+     * @since 0.11
+     */
+    public synchronized void freeze() {
+        
+        if(frozen) {
+            return;
+        }
+        
+        this.conditions = Collections.unmodifiableList(Arrays.asList(conditions.toArray(new String[conditions.size()])));
+        
+        final Callback<?>[] callbackArray = callbacks.toArray(new Callback<?>[callbacks.size()]);
+        this.callbacks = Collections.unmodifiableList(Arrays.asList(callbackArray));
+        this.callbackArray = callbackArray;
+        
+        freezeTerms();
+        
+        this.frozen = true;
+    }
+    
+    /**
+     * 各項を固定化する。
+     * <p>{@link #freeze()}から呼び出され、サブクラスで各項のリストを配列に変換します。
+     * @since 0.11
+     */
+    protected void freezeTerms() {
+        
+    }
+    
+    /**
+     * 固定化されているかどうか。
+     * @since 0.11
+     * @return true:固定化されている場合。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    /**
+     * 固定化されている場合に例外をスローする。
+     * @since 0.11
+     * @throws IllegalStateException 固定化されている場合。
+     */
+    protected void checkNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("formatter is frozen : " + pattern);
+        }
+    }
+    
     /**
      * 種類が'日時'のフォーマッタかどうか。
      * @return
@@ -110,6 +255,7 @@ public abstract class ConditionFormatter {
      * @param condition
      */
     public void addCondition(final String condition) {
+        checkNotFrozen();
         this.conditions.add(condition);
     }
     
@@ -118,6 +264,7 @@ public abstract class ConditionFormatter {
      * @param conditions
      */
     public void addAllCondition(final List<String> conditions) {
+        checkNotFrozen();
         this.conditions.addAll(conditions);
     }
     
@@ -141,6 +288,7 @@ public abstract class ConditionFormatter {
      * 色を設定する。
      */
     public void setColor(MSColor color) {
+        checkNotFrozen();
         this.color = color;
     }
     
@@ -157,6 +305,7 @@ public abstract class ConditionFormatter {
      * @param operator 一致条件
      */
     public void setOperator(ConditionOperator operator) {
+        checkNotFrozen();
         this.operator = operator;
     }
     
@@ -173,6 +322,7 @@ public abstract class ConditionFormatter {
      * @param locale
      */
     public void setLocale(MSLocale locale) {
+        checkNotFrozen();
         this.locale = locale;
     }
     
@@ -181,6 +331,7 @@ public abstract class ConditionFormatter {
      * @param callback
      */
     public void addCallback(final Callback<?> callback) {
+        checkNotFrozen();
         this.callbacks.add(callback);
     }
     
@@ -188,6 +339,8 @@ public abstract class ConditionFormatter {
      * コールバック処理を先頭に追加する。（優先度を高くする。）
      */
     public void addFirstCallcack(final Callback<?> callback) {
+        checkNotFrozen();
+        
         // 一旦他のリストにコピーする。
         List<Callback<?>> list = new ArrayList<Callback<?>>();
         list.add(callback);
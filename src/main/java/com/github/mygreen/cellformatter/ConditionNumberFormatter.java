@@ -1,10 +1,12 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import com.github.mygreen.cellformatter.callback.Callback;
 import com.github.mygreen.cellformatter.number.FormattedNumber;
 import com.github.mygreen.cellformatter.number.NumberFactory;
 import com.github.mygreen.cellformatter.term.NumberTerm;
@@ -14,7 +16,7 @@ import com.github.mygreen.cellformatter.tokenizer.Token;
 
 /**
  * 数値のフォーマッタ
- * @version 0.10
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -25,6 +27,11 @@ public class ConditionNumberFormatter extends ConditionFormatter {
      */
     private List<Term<FormattedNumber>> terms = new CopyOnWriteArrayList<>();
 
+    /**
+     * 固定化した各書式の項。固定化されていない場合はnull。
+     */
+    private volatile Term<FormattedNumber>[] termArray;
+
     /**
      * フォーマット対象の数値を作成する
      */
@@ -46,54 +53,121 @@ public class ConditionNumberFormatter extends ConditionFormatter {
         }
 
         final double value = cell.getNumberCellValue();
+        return isMatch(value);
+    }
+
+    /**
+     * 数値が条件に一致するかどうか。
+     * @since 0.11
+     * @param value 判定対象の数値。
+     * @return true:一致する。
+     */
+    public boolean isMatch(final double value) {
         return getOperator().isMatch(value);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale) {
+        return format(cell.getNumberCellValue(), runtimeLocale);
+    }
 
-        final double number = cell.getNumberCellValue();
-        final FormattedNumber numObj = numberFactory.create(number);
+    /**
+     * セルを経由せずに、数値を直接フォーマットする。
+     * @since 0.11
+     * @param number フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @return フォーマット結果。
+     */
+    public CellFormatResult format(final double number, final Locale runtimeLocale) {
 
-        final StringBuilder sb = new StringBuilder();
-        if(getOperator().equals(ConditionOperator.ALL) && numObj.isNegative()) {
-            //条件がALLの時に符号を付ける。
-            sb.append("-");
-        }
+        final CellFormatResult result = new CellFormatResult();
+        result.setValue(number);
+        result.setText(formatAsString(number, runtimeLocale));
+        result.setTextColor(getColor());
+        result.setSectionPattern(getPattern());
+        result.setCellType(FormatCellType.Number);
 
-        for(Term<FormattedNumber> term : terms) {
-            sb.append(term.format(numObj, getLocale(), runtimeLocale));
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>コールバックを適用しない場合は、各項の文字列を直接出力先に追加します。
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Appendable out) throws IOException {
+        formatTo(cell.getNumberCellValue(), runtimeLocale, out);
+    }
+
+    /**
+     * セルを経由せずに数値を直接フォーマットし、結果の文字列を出力先に追加する。
+     * @since 0.11
+     * @param number フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @param out フォーマットした文字列の出力先。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     */
+    public void formatTo(final double number, final Locale runtimeLocale, final Appendable out) throws IOException {
+
+        if(hasApplicableCallback(runtimeLocale)) {
+            // コールバックは書式全体の文字列を変換するため、文字列を作成してから追加する。
+            out.append(formatAsString(number, runtimeLocale));
+            return;
         }
 
-        //TODO: 項目ごとに特殊条件の処理を行う。
+        appendTerms(number, runtimeLocale, out);
+    }
 
-        // 特殊条件の処理を行う。
-        String value = sb.toString();
-        for(Callback callback : getCallbacks()) {
-
-            final Locale locale;
-            if(getLocale() != null) {
-                locale = getLocale().getLocale();
-            } else {
-                locale = runtimeLocale;
+    /**
+     * 数値の符号と各項の文字列を、出力先に追加する。
+     * @param number フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @param out フォーマットした文字列の出力先。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     */
+    private void appendTerms(final double number, final Locale runtimeLocale, final Appendable out) throws IOException {
+
+        final FormattedNumber numObj = numberFactory.create(number);
+        if(getOperator().equals(ConditionOperator.ALL) && numObj.isNegative()) {
+            //条件がALLの時に符号を付ける。
+            out.append('-');
+        }
+
+        final Term<FormattedNumber>[] array = termArray;
+        if(array != null) {
+            for(int i=0; i < array.length; i++) {
+                out.append(array[i].format(numObj, getLocale(), runtimeLocale));
             }
 
-            if(!callback.isApplicable(locale)) {
-                continue;
+        } else {
+            // 固定化されていない場合は、コピーを作成せずに順に参照する
+            for(Term<FormattedNumber> term : terms) {
+                out.append(term.format(numObj, getLocale(), runtimeLocale));
             }
+        }
+    }
 
-            value = callback.call(number, value, locale, null);
+    /**
+     * セルを経由せずに、数値を直接フォーマットし、結果を文字列として取得する。
+     * @since 0.11
+     * @param number フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @return フォーマットした文字列。
+     */
+    public String formatAsString(final double number, final Locale runtimeLocale) {
+
+        final StringBuilder sb = new StringBuilder();
+        try {
+            appendTerms(number, runtimeLocale, sb);
+        } catch(IOException e) {
+            // StringBuilderへの追加では発生しない
+            throw new IllegalStateException(e);
         }
 
-        final CellFormatResult result = new CellFormatResult();
-        result.setValue(number);
-        result.setText(value);
-        result.setTextColor(getColor());
-        result.setSectionPattern(getPattern());
-        result.setCellType(FormatCellType.Number);
+        //TODO: 項目ごとに特殊条件の処理を行う。
 
-        return result;
+        // 特殊条件の処理を行う。
+        return applyCallbacks(number, sb.toString(), runtimeLocale, null);
     }
 
     /**
@@ -101,6 +175,7 @@ public class ConditionNumberFormatter extends ConditionFormatter {
      * @param term
      */
     public void addTerm(final Term<FormattedNumber> term) {
+        checkNotFrozen();
         this.terms.add(term);
     }
 
@@ -112,6 +187,14 @@ public class ConditionNumberFormatter extends ConditionFormatter {
         return terms;
     }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Override
+    protected void freezeTerms() {
+        final Term<FormattedNumber>[] array = terms.toArray(new Term[terms.size()]);
+        this.terms = Collections.unmodifiableList(Arrays.asList(array));
+        this.termArray = array;
+    }
+
     /**
      * 記号用の項の中で、指定した記号を含むかどうか。
      * @param symbol
@@ -139,6 +222,7 @@ public class ConditionNumberFormatter extends ConditionFormatter {
     }
 
     public void setNumberFactory(NumberFactory numberFactory) {
+        checkNotFrozen();
         this.numberFactory = numberFactory;
     }
 }
@@ -1,5 +1,8 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -10,7 +13,7 @@ import com.github.mygreen.cellformatter.term.Term;
 /**
  * Excelのテキスト表示のフォーマットと処理を行うクラス。
  * <p>書式中に'@'を含むもの。
- * @version 0.3
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -21,6 +24,11 @@ public class ConditionTextFormatter extends ConditionFormatter {
      */
     private List<Term<String>> terms = new CopyOnWriteArrayList<>();
     
+    /**
+     * 固定化したテキストの書式の項。固定化されていない場合はnull。
+     */
+    private volatile Term<String>[] termArray;
+    
     public ConditionTextFormatter(final String pattern) {
         super(pattern);
     }
@@ -41,17 +49,21 @@ public class ConditionTextFormatter extends ConditionFormatter {
     @Override
     public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale) {
         
-        final String value;
-        if(cell.isBoolean()) {
-            value = String.valueOf(cell.getBooleanCellValue()).toUpperCase();
-        } else {
-            value = cell.getTextCellValue();
-        }
+        final String value = getTextValue(cell);
         
         final StringBuilder sb = new StringBuilder();
         
-        for(Term<String> term : terms) {
-            sb.append(term.format(value, getLocale(), runtimeLocale));
+        final Term<String>[] array = termArray;
+        if(array != null) {
+            for(int i=0; i < array.length; i++) {
+                sb.append(array[i].format(value, getLocale(), runtimeLocale));
+            }
+            
+        } else {
+            // 固定化されていない場合は、コピーを作成せずに順に参照する
+            for(Term<String> term : terms) {
+                sb.append(term.format(value, getLocale(), runtimeLocale));
+            }
         }
         
         String text = sb.toString();
@@ -73,6 +85,40 @@ public class ConditionTextFormatter extends ConditionFormatter {
         
     }
     
+    /**
+     * {@inheritDoc}
+     * <p>各項の文字列を直接出力先に追加します。
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Appendable out) throws IOException {
+        
+        final String value = getTextValue(cell);
+        final Term<String>[] array = termArray;
+        if(array != null) {
+            for(int i=0; i < array.length; i++) {
+                out.append(array[i].format(value, getLocale(), runtimeLocale));
+            }
+            
+        } else {
+            for(Term<String> term : terms) {
+                out.append(term.format(value, getLocale(), runtimeLocale));
+            }
+        }
+    }
+    
+    /**
+     * フォーマット対象の文字列を取得する。
+     * @param cell セル
+     * @return ブール型の場合は、大文字の{@literal TRUE/FALSE}を返す。
+     */
+    private String getTextValue(final CommonCell cell) {
+        if(cell.isBoolean()) {
+            return String.valueOf(cell.getBooleanCellValue()).toUpperCase();
+        } else {
+            return cell.getTextCellValue();
+        }
+    }
+    
     /**
      * 書式の項を全て取得する。
      * @return
@@ -86,7 +132,16 @@ public class ConditionTextFormatter extends ConditionFormatter {
      * @param term
      */
     public void addTerm(Term<String> term) {
+        checkNotFrozen();
         this.terms.add(term);
     }
     
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Override
+    protected void freezeTerms() {
+        final Term<String>[] array = terms.toArray(new Term[terms.size()]);
+        this.terms = Collections.unmodifiableList(Arrays.asList(array));
+        this.termArray = array;
+    }
+    
 }
@@ -1,10 +1,16 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
 import com.github.mygreen.cellformatter.number.NumberFactory;
 import com.github.mygreen.cellformatter.term.NumberTerm;
 import com.github.mygreen.cellformatter.term.TextTerm;
@@ -15,8 +21,9 @@ import com.github.mygreen.cellformatter.tokenizer.Token;
 /**
  * ユーザ定義の書式を表現するフォーマッタ。
  * <p>{@link CustomFormatterFactory}からインスタンスを作成する。
+ * <p>{@link CustomFormatterFactory}で作成したインスタンスは固定化されており、変更できません。
  *
- * @version 0.10
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -41,6 +48,7 @@ public class CustomFormatter extends CellFormatter {
         final CustomFormatter formatter = new CustomFormatter("");
         formatter.addConditionFormatter(numberFormatter);
         formatter.addConditionFormatter(textFormatter);
+        formatter.freeze();
 
         DEFAULT_FORMATTER = formatter;
     }
@@ -55,6 +63,17 @@ public class CustomFormatter extends CellFormatter {
      */
     private List<ConditionFormatter> conditionFormatters = new CopyOnWriteArrayList<>();
 
+    /**
+     * 固定化した条件付きのフォーマッタ。固定化されていない場合はnull。
+     */
+    private volatile ConditionFormatter[] conditionFormatterArray;
+
+    /**
+     * 固定化した際に作成した、セルの種類ごとの書式の振り分け。
+     * <p>固定化されていない場合や、標準以外の条件付きのフォーマッタを含む場合はnull。
+     */
+    private volatile SectionDispatcher sectionDispatcher;
+
     /**
      * 書式を指定してインスタンスを作成する。
      * @param pattern ユーザ定義の書式。
@@ -68,10 +87,9 @@ public class CustomFormatter extends CellFormatter {
 
         ArgUtils.notNull(cell, "cell");
 
-        for(ConditionFormatter formatter : conditionFormatters) {
-            if(formatter.isMatch(cell)) {
-                return formatter.format(cell, runtimeLocale);
-            }
+        final ConditionFormatter formatter = findConditionFormatter(cell);
+        if(formatter != null) {
+            return formatter.format(cell, runtimeLocale);
         }
 
         /*
@@ -91,6 +109,165 @@ public class CustomFormatter extends CellFormatter {
 
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>一致した条件の書式で、各項の文字列を直接出力先に追加します。
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Appendable out) throws IOException {
+
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(out, "out");
+
+        final ConditionFormatter formatter = findConditionFormatter(cell);
+        if(formatter != null) {
+            formatter.formatTo(cell, runtimeLocale, out);
+            return;
+        }
+
+        // 一致するものがない場合は、デフォルトのフォーマッタで処理する。
+        if(cell.isText() || cell.isNumber()) {
+            DEFAULT_FORMATTER.formatTo(cell, runtimeLocale, out);
+            return;
+        }
+
+        throw new NoMatchConditionFormatterException(cell, String.format(
+                "not match format for cell : '%s'", cell.getCellAddress()));
+
+    }
+
+    /**
+     * セルに一致する条件付きのフォーマッタを探す。
+     * <p>固定化されている場合は、セルの種類ごとに振り分けた書式から探します。
+     * @since 0.11
+     * @param cell 判定対象のセル。
+     * @return 一致するものがない場合は、nullを返す。
+     */
+    private ConditionFormatter findConditionFormatter(final CommonCell cell) {
+
+        final SectionDispatcher dispatcher = sectionDispatcher;
+        if(dispatcher != null) {
+            return dispatcher.find(cell);
+        }
+
+        final ConditionFormatter[] formatters = getConditionFormatterArray();
+        for(int i=0; i < formatters.length; i++) {
+            if(formatters[i].isMatch(cell)) {
+                return formatters[i];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>日時の書式を含まない場合は、セルを作成せずに数値の書式で直接フォーマットします。
+     */
+    @Override
+    public CellFormatResult format(final double value, final Locale locale) {
+
+        final ConditionNumberFormatter formatter = findNumberFormatter(value);
+        if(formatter == null) {
+            return super.format(value, locale);
+        }
+
+        return formatter.format(value, locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>日時の書式を含まない場合は、セルを作成せずに数値の書式で直接フォーマットします。
+     */
+    @Override
+    public String formatAsString(final double value, final Locale locale) {
+
+        final ConditionNumberFormatter formatter = findNumberFormatter(value);
+        if(formatter == null) {
+            return super.formatAsString(value, locale);
+        }
+
+        return formatter.formatAsString(value, locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>日時の書式を含まない場合は、セルや文字列を作成せずに、数値の書式の各項を直接出力先に追加します。
+     */
+    @Override
+    public void formatTo(final double value, final Locale locale, final Appendable out) throws IOException {
+
+        ArgUtils.notNull(out, "out");
+
+        final ConditionNumberFormatter formatter = findNumberFormatter(value);
+        if(formatter == null) {
+            super.formatTo(value, locale, out);
+            return;
+        }
+
+        formatter.formatTo(value, locale, out);
+    }
+
+    /**
+     * 数値に一致する数値の書式を探す。
+     * <p>一致するものがない場合は、{@link #DEFAULT_FORMATTER}の書式を返す。
+     * @param value 判定対象の数値。
+     * @return 日時の書式や標準以外の書式が先に現れる場合は、セルを経由して判定する必要があるため、nullを返す。
+     */
+    private ConditionNumberFormatter findNumberFormatter(final double value) {
+
+        final ConditionFormatter[] formatters = getConditionFormatterArray();
+        for(int i=0; i < formatters.length; i++) {
+            final ConditionFormatter formatter = formatters[i];
+            final Class<?> type = formatter.getClass();
+            if(type == ConditionTextFormatter.class) {
+                continue;
+
+            } else if(type != ConditionNumberFormatter.class) {
+                return null;
+            }
+
+            final ConditionNumberFormatter numberFormatter = (ConditionNumberFormatter) formatter;
+            if(numberFormatter.isMatch(value)) {
+                return numberFormatter;
+            }
+        }
+
+        if(this == DEFAULT_FORMATTER) {
+            return null;
+        }
+
+        return DEFAULT_FORMATTER.findNumberFormatter(value);
+    }
+
+    /**
+     * 数値を判定する書式を、判定する順に取得する。
+     * <p>一致するものがない場合に備え、最後に{@link #DEFAULT_FORMATTER}の数値の書式を追加します。
+     * @since 0.11
+     * @return 日時の書式や標準以外の書式を含む場合は、セルを経由して判定する必要があるため、nullを返す。
+     */
+    ConditionNumberFormatter[] getNumberFormatterSections() {
+
+        final List<ConditionNumberFormatter> sections = new ArrayList<>();
+        for(ConditionFormatter formatter : getConditionFormatterArray()) {
+            final Class<?> type = formatter.getClass();
+            if(type == ConditionTextFormatter.class) {
+                continue;
+
+            } else if(type != ConditionNumberFormatter.class) {
+                return null;
+            }
+
+            sections.add((ConditionNumberFormatter) formatter);
+        }
+
+        if(this != DEFAULT_FORMATTER) {
+            sections.addAll(Arrays.asList(DEFAULT_FORMATTER.getNumberFormatterSections()));
+        }
+
+        return sections.toArray(new ConditionNumberFormatter[sections.size()]);
+    }
+
     @Override
     public String getPattern(Locale locale) {
         return pattern;
@@ -101,7 +278,7 @@ public class CustomFormatter extends CellFormatter {
      * @return
      */
     public boolean hasTextFormatter() {
-        for(ConditionFormatter formatter : conditionFormatters) {
+        for(ConditionFormatter formatter : getConditionFormatterArray()) {
             if(formatter.isTextFormatter()) {
                 return true;
             }
@@ -116,7 +293,7 @@ public class CustomFormatter extends CellFormatter {
      * @return
      */
     public boolean hasDateFormatter() {
-        for(ConditionFormatter formatter : conditionFormatters) {
+        for(ConditionFormatter formatter : getConditionFormatterArray()) {
             if(formatter.isDateFormatter()) {
                 return true;
             }
@@ -131,7 +308,7 @@ public class CustomFormatter extends CellFormatter {
      * @return
      */
     public boolean hasNumberFormatter() {
-        for(ConditionFormatter formatter : conditionFormatters) {
+        for(ConditionFormatter formatter : getConditionFormatterArray()) {
             if(formatter.isNumberFormatter()) {
                 return true;
             }
@@ -145,9 +322,58 @@ public class CustomFormatter extends CellFormatter {
      * @param formatter
      */
     public void addConditionFormatter(ConditionFormatter formatter) {
+        if(isFrozen()) {
+            throw new IllegalStateException("formatter is frozen : " + pattern);
+        }
         this.conditionFormatters.add(formatter);
     }
 
+    /**
+     * フォーマッタを固定化し、以降は変更できないようにする。
+     * <p>各条件付きのフォーマッタも固定化し、条件付きのフォーマッタのリストを配列に変換します。
+     *    また、セルの種類ごとに判定する書式を振り分けておき、フォーマット時の判定を減らします。
+     *    固定化した後に条件付きのフォーマッタを追加しようとすると、{@link IllegalStateException}がスローされます。</p>
+     * <p>既に固定化されている場合は、何もしません。</p>
+     * @since 0.11
+     */
+    public synchronized void freeze() {
+
+        if(isFrozen()) {
+            return;
+        }
+
+        final ConditionFormatter[] array = conditionFormatters.toArray(new ConditionFormatter[conditionFormatters.size()]);
+        for(ConditionFormatter formatter : array) {
+            formatter.freeze();
+        }
+
+        this.conditionFormatters = Collections.unmodifiableList(Arrays.asList(array));
+        this.sectionDispatcher = SectionDispatcher.create(array);
+        this.conditionFormatterArray = array;
+    }
+
+    /**
+     * 固定化されているかどうか。
+     * @since 0.11
+     * @return true:固定化されている場合。
+     */
+    public boolean isFrozen() {
+        return conditionFormatterArray != null;
+    }
+
+    /**
+     * 条件付きのフォーマッタを配列として取得する。
+     * @return 固定化されていない場合は、現在のフォーマッタをコピーした配列を返す。
+     */
+    private ConditionFormatter[] getConditionFormatterArray() {
+        final ConditionFormatter[] array = conditionFormatterArray;
+        if(array != null) {
+            return array;
+        }
+
+        return conditionFormatters.toArray(new ConditionFormatter[conditionFormatters.size()]);
+    }
+
     /**
      * 条件付きのフォーマッタを取得する。
      * @return
@@ -156,4 +382,134 @@ public class CustomFormatter extends CellFormatter {
         return conditionFormatters;
     }
 
+    /**
+     * セルの種類ごとに、判定する書式を振り分けたもの。
+     * <p>文字列とブール値は最初の文字列の書式に、数値は数値と日時の書式の条件を順に判定します。
+     *    数値と日時の値は、セルから1度だけ取得します。</p>
+     * @since 0.11
+     */
+    private static final class SectionDispatcher {
+
+        /**
+         * 最初の文字列の書式。存在しない場合はnull。
+         */
+        private final ConditionFormatter textSection;
+
+        /**
+         * 文字列の書式より前にある、数値と日時の書式の個数
+         */
+        private final int numericCountBeforeText;
+
+        /**
+         * 数値と日時の書式を、判定する順に並べたもの
+         */
+        private final ConditionFormatter[] numericSections;
+
+        /**
+         * 数値と日時の書式の条件
+         */
+        private final ConditionOperator[] numericOperators;
+
+        /**
+         * 数値と日時の書式が、日時の書式かどうか
+         */
+        private final boolean[] dateSections;
+
+        private SectionDispatcher(final ConditionFormatter textSection, final int numericCountBeforeText,
+                final ConditionFormatter[] numericSections, final ConditionOperator[] numericOperators, final boolean[] dateSections) {
+            this.textSection = textSection;
+            this.numericCountBeforeText = numericCountBeforeText;
+            this.numericSections = numericSections;
+            this.numericOperators = numericOperators;
+            this.dateSections = dateSections;
+        }
+
+        /**
+         * 条件付きのフォーマッタから作成する。
+         * @param formatters 固定化した条件付きのフォーマッタ。
+         * @return 標準以外の条件付きのフォーマッタを含み、振り分けられない場合はnullを返す。
+         */
+        private static SectionDispatcher create(final ConditionFormatter[] formatters) {
+
+            ConditionFormatter textSection = null;
+            int numericCountBeforeText = -1;
+            final List<ConditionFormatter> sections = new ArrayList<>();
+            for(ConditionFormatter formatter : formatters) {
+                final Class<?> type = formatter.getClass();
+                if(type == ConditionTextFormatter.class) {
+                    if(textSection == null) {
+                        textSection = formatter;
+                        numericCountBeforeText = sections.size();
+                    }
+
+                } else if(type == ConditionNumberFormatter.class || type == ConditionDateFormatter.class) {
+                    if(formatter.getOperator() == null) {
+                        return null;
+                    }
+                    sections.add(formatter);
+
+                } else {
+                    return null;
+                }
+            }
+
+            final int size = sections.size();
+            final ConditionFormatter[] numericSections = sections.toArray(new ConditionFormatter[size]);
+            final ConditionOperator[] numericOperators = new ConditionOperator[size];
+            final boolean[] dateSections = new boolean[size];
+            for(int i=0; i < size; i++) {
+                numericOperators[i] = numericSections[i].getOperator();
+                dateSections[i] = numericSections[i] instanceof ConditionDateFormatter;
+            }
+
+            return new SectionDispatcher(textSection, numericCountBeforeText < 0 ? size : numericCountBeforeText,
+                    numericSections, numericOperators, dateSections);
+        }
+
+        /**
+         * セルに一致する書式を探す。
+         * @param cell 判定対象のセル。
+         * @return 一致するものがない場合は、nullを返す。
+         */
+        private ConditionFormatter find(final CommonCell cell) {
+
+            final boolean text = textSection != null && (cell.isText() || cell.isBoolean());
+            if(!cell.isNumber()) {
+                return text ? textSection : null;
+            }
+
+            // 文字列の書式にも一致する場合は、文字列の書式より前にある書式のみを判定する。
+            final int count = text ? numericCountBeforeText : numericSections.length;
+            double numberValue = 0.0d;
+            boolean numberRead = false;
+            double dateValue = 0.0d;
+            boolean dateRead = false;
+            for(int i=0; i < count; i++) {
+                final double value;
+                if(dateSections[i]) {
+                    if(!dateRead) {
+                        final Date date = cell.getDateCellValue();
+                        dateValue = date.getTime() - ExcelDateUtils.getExcelZeroDateTime(cell.isDateStart1904());
+                        dateRead = true;
+                    }
+                    value = dateValue;
+
+                } else {
+                    if(!numberRead) {
+                        numberValue = cell.getNumberCellValue();
+                        numberRead = true;
+                    }
+                    value = numberValue;
+                }
+
+                if(numericOperators[i].isMatch(value)) {
+                    return numericSections[i];
+                }
+            }
+
+            return text ? textSection : null;
+        }
+
+    }
+
 }
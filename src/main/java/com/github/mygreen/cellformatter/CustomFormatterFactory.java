@@ -10,7 +10,7 @@ import com.github.mygreen.cellformatter.tokenizer.TokenStore;
 /**
  * ユーザ定義の書式を解析して、{@link CustomFormatter}のインスタンスを作成するクラス。
  * 
- * @version 0.9.2
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -25,13 +25,26 @@ public class CustomFormatterFactory {
     /**
      * 書式を元に、{@link CustomFormatter}のインスタンスを作成する。
      * @param pattern ユーザ定義の書式
-     * @return 指定したユーザ定義に対するフォーマッタ。
+     * @return 指定したユーザ定義に対するフォーマッタ。固定化されています。
      * @throws CustomFormatterParseException 書式が不正な場合にスローされる。
      */
     public CustomFormatter create(final String pattern) {
         
         final CustomFormatTokenizer tokenizer = new CustomFormatTokenizer();
-        final TokenStore allStore = tokenizer.parse(pattern);
+        return create(pattern, tokenizer.parse(pattern));
+    }
+    
+    /**
+     * 分割済みのトークンから、書式を作成する。
+     * <p>書式パターンを既に分割している場合に、再度分割しないために利用します。
+     * @since 0.11
+     * @param pattern 書式のパターン。
+     * @param allStore {@link CustomFormatTokenizer#parse(String)}で書式のパターンを分割したトークン。
+     * @return 作成したフォーマッタ。
+     * @throws CustomFormatterParseException 書式が不正な場合。
+     */
+    CustomFormatter create(final String pattern, final TokenStore allStore) {
+        
         if(allStore.getTokens().isEmpty()) {
             // 標準のフォーマッタ
             return CustomFormatter.DEFAULT_FORMATTER;
@@ -150,6 +163,9 @@ public class CustomFormatterFactory {
             
         }
         
+        // 組み立てが終わったため、以降は変更できないようにする。
+        formatter.freeze();
+        
         return formatter;
     }
 
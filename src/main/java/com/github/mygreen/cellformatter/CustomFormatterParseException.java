@@ -4,7 +4,7 @@ package com.github.mygreen.cellformatter;
 /**
  * パース時に書式が不正と判断する場合にスローされる例外。
  * 
- * @version 0.2
+ * @version 0.11
  * @since 0.2
  * @author T.TSUCHIE
  *
@@ -27,6 +27,18 @@ public class CustomFormatterParseException extends RuntimeException {
         this.pattern = pattern;
     }
     
+    /**
+     * メッセージと原因を指定してインスタンスを作成する。
+     * @since 0.11
+     * @param pattern 問題となった書式。
+     * @param message エラーメッセージ。
+     * @param cause 原因となった例外。
+     */
+    public CustomFormatterParseException(final String pattern, final String message, final Throwable cause) {
+        super(message, cause);
+        this.pattern = pattern;
+    }
+    
     /**
      * 書式を取得する。
      * @return
@@ -0,0 +1,113 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.mygreen.cellformatter.lang.MSColor;
+import com.github.mygreen.cellformatter.tokenizer.CustomFormatTokenizer;
+import com.github.mygreen.cellformatter.tokenizer.Token;
+import com.github.mygreen.cellformatter.tokenizer.TokenStore;
+
+
+/**
+ * 書式パターンを、フォーマットした結果が同じになる書式で共通の正規形のキーに変換するクラス。
+ * <p>{@link CustomFormatTokenizer}で分割したトークンを、次のように正規化します。</p>
+ * <ul>
+ *   <li>{@literal "abc"}などの引用符で囲まれた文字列と、{@literal \a}などのエスケープした文字は、
+ *       出力する文字列として扱い、連続するものは1つにまとめます。
+ *       ただし、{@literal 0/}や{@literal 0-}などの囲まれていない記号は、書式によって意味が異なるため
+ *       （例. 数値の書式の{@literal /}は分数）、{@literal 0"/"}や{@literal 0"-"}とは異なるキーになります。</li>
+ *   <li>{@literal [Red]}などの色の名前は、大文字・小文字やロケールによる名前の違いを区別しません。
+ *       また、{@literal [Color10]}と{@literal [色10]}などのインデックス指定の色は、インデックス番号で比較します。</li>
+ * </ul>
+ * <p>その他のトークンは、書式パターンの記述のまま比較します。</p>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+final class FormatPatternCanonicalizer {
+
+    /**
+     * インデックス形式の色の条件のパターン
+     */
+    private static final Pattern PATTERN_CONDITION_INDEX_COLOR = Pattern.compile("\\[(色|Color)([0-9]+)\\]");
+
+    private FormatPatternCanonicalizer() {
+    }
+
+    /**
+     * 書式パターンを分割したトークンを、正規形のキーに変換する。
+     * @param store {@link CustomFormatTokenizer#parse(String)}で書式パターンを分割したトークン。
+     * @return 正規形のキー。
+     */
+    static String canonicalize(final TokenStore store) {
+
+        final StringBuilder key = new StringBuilder(store.getTokens().size() * 4 + 16);
+        final StringBuilder literal = new StringBuilder();
+
+        for(Token token : store.getTokens()) {
+
+            if(token instanceof Token.Word) {
+                literal.append(token.asWord().getWord());
+                continue;
+
+            } else if(token instanceof Token.EscapedChar) {
+                literal.append(token.asEscapedChar().getChar());
+                continue;
+            }
+
+            if(literal.length() > 0) {
+                appendToken(key, 'L', literal.toString());
+                literal.setLength(0);
+            }
+
+            if(token instanceof Token.Condition) {
+                appendCondition(key, token.asCondition());
+
+            } else if(token instanceof Token.Symbol) {
+                appendToken(key, 'S', token.getValue());
+
+            } else if(token instanceof Token.Underscore) {
+                appendToken(key, 'U', token.getValue());
+
+            } else if(token instanceof Token.Asterisk) {
+                appendToken(key, 'A', token.getValue());
+
+            } else {
+                appendToken(key, 'F', token.getValue());
+            }
+        }
+
+        if(literal.length() > 0) {
+            appendToken(key, 'L', literal.toString());
+        }
+
+        return key.toString();
+    }
+
+    private static void appendCondition(final StringBuilder key, final Token.Condition token) {
+
+        final MSColor color = MSColor.valueOfKnownColor(token.getCondition());
+        if(color != null) {
+            appendToken(key, 'C', String.valueOf(color.getIndex()));
+            return;
+        }
+
+        final Matcher matcher = PATTERN_CONDITION_INDEX_COLOR.matcher(token.getValue());
+        if(matcher.matches()) {
+            appendToken(key, 'I', Short.valueOf(matcher.group(2)).toString());
+            return;
+        }
+
+        appendToken(key, 'K', token.getValue());
+    }
+
+    /**
+     * トークンの種類と長さを付けて追加し、区切りが曖昧にならないようにする。
+     */
+    private static void appendToken(final StringBuilder key, final char type, final String value) {
+        key.append(type).append(value.length()).append(':').append(value);
+    }
+
+}
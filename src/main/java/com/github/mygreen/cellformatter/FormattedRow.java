@@ -0,0 +1,120 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Arrays;
+
+
+/**
+ * ストリーミング処理でフォーマットした1行分の結果。
+ * <p>値が存在するセルのみを、列番号の順に保持します。
+ * <p>インスタンスは行ごとに再利用されるため、{@link FormattedRowHandler#handleRow(FormattedRow)}の呼び出し後は内容が変わります。
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class FormattedRow {
+
+    /**
+     * 行番号(0から始まる)
+     */
+    private int rowIndex;
+
+    /**
+     * 保持しているセルの個数
+     */
+    private int cellCount;
+
+    /**
+     * セルごとの列番号
+     */
+    private int[] columnIndexes = new int[16];
+
+    /**
+     * セルごとのフォーマット結果
+     */
+    private CellFormatResult[] results = new CellFormatResult[16];
+
+    /**
+     * 行番号を取得する。
+     * @return 0から始まる行番号。
+     */
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * 保持しているセルの個数を取得する。
+     * @return セルの個数。
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * 指定した位置のセルの列番号を取得する。
+     * @param index 行内のセルの位置(0から始まる)。
+     * @return 0から始まる列番号。
+     * @throws IndexOutOfBoundsException {@literal index < 0 || index >= getCellCount()}
+     */
+    public int getColumnIndex(final int index) {
+        checkIndex(index);
+        return columnIndexes[index];
+    }
+
+    /**
+     * 指定した位置のセルのフォーマット結果を取得する。
+     * @param index 行内のセルの位置(0から始まる)。
+     * @return フォーマット結果。
+     * @throws IndexOutOfBoundsException {@literal index < 0 || index >= getCellCount()}
+     */
+    public CellFormatResult getResult(final int index) {
+        checkIndex(index);
+        return results[index];
+    }
+
+    /**
+     * 列番号を指定してセルのフォーマット結果を取得する。
+     * @param columnIndex 0から始まる列番号。
+     * @return 該当する列のセルが存在しない場合は、nullを返す。
+     */
+    public CellFormatResult getResultByColumn(final int columnIndex) {
+        final int index = Arrays.binarySearch(columnIndexes, 0, cellCount, columnIndex);
+        return index < 0 ? null : results[index];
+    }
+
+    private void checkIndex(final int index) {
+        if(index < 0 || index >= cellCount) {
+            throw new IndexOutOfBoundsException(String.format("index=%d, cellCount=%d", index, cellCount));
+        }
+    }
+
+    /**
+     * 新しい行の処理を開始する。
+     * <p>前の行の内容は破棄します。
+     * @param rowIndex 0から始まる行番号。
+     */
+    void reset(final int rowIndex) {
+        Arrays.fill(results, 0, cellCount, null);
+        this.rowIndex = rowIndex;
+        this.cellCount = 0;
+    }
+
+    /**
+     * セルのフォーマット結果を追加する。
+     * @param columnIndex 0から始まる列番号。
+     * @param result フォーマット結果。
+     */
+    void add(final int columnIndex, final CellFormatResult result) {
+
+        if(cellCount == columnIndexes.length) {
+            final int newLength = cellCount * 2;
+            this.columnIndexes = Arrays.copyOf(columnIndexes, newLength);
+            this.results = Arrays.copyOf(results, newLength);
+        }
+
+        columnIndexes[cellCount] = columnIndex;
+        results[cellCount] = result;
+        cellCount++;
+    }
+
+}
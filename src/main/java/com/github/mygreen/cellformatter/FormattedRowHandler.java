@@ -0,0 +1,35 @@
+package com.github.mygreen.cellformatter;
+
+
+/**
+ * ストリーミング処理でフォーマットした行を受け取るためのハンドラ。
+ * <p>シートごとに、{@link #startSheet(int, String)}、{@link #handleRow(FormattedRow)}、{@link #endSheet(int, String)}の順に呼ばれます。
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public interface FormattedRowHandler {
+
+    /**
+     * シートの処理を開始するときに呼ばれる。
+     * @param sheetIndex シートの番号(0から始まる)。
+     * @param sheetName シート名。
+     */
+    void startSheet(int sheetIndex, String sheetName);
+
+    /**
+     * 1行分のフォーマットが完了したときに呼ばれる。
+     * <p>引数の{@link FormattedRow}は次の行で再利用されるため、呼び出し後も値を利用する場合は必要な値をコピーしてください。
+     * @param row フォーマットした行。
+     */
+    void handleRow(FormattedRow row);
+
+    /**
+     * シートの処理を終了するときに呼ばれる。
+     * @param sheetIndex シートの番号(0から始まる)。
+     * @param sheetName シート名。
+     */
+    void endSheet(int sheetIndex, String sheetName);
+
+}
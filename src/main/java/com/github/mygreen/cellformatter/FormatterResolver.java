@@ -1,15 +1,26 @@
 package com.github.mygreen.cellformatter;
 
+import java.lang.reflect.Method;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
+import com.github.mygreen.cellformatter.lang.ArgUtils;
 import com.github.mygreen.cellformatter.lang.MessageResolver;
+import com.github.mygreen.cellformatter.tokenizer.CustomFormatTokenizer;
+import com.github.mygreen.cellformatter.tokenizer.TokenStore;
 
 
 /**
  * セルのフォーマッタを解決するクラス。
  * <p>解析したフォーマットをキャッシュし、性能を向上する。
+ * <p>書式パターンを指定してキャッシュするフォーマッタは、上限の件数まで保持し、上限を超えた場合は参照されていないものから削除します。
+ *    組み込み書式や{@link #registerFormatter(String, CellFormatter)}で登録したフォーマッタは削除されません。</p>
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -17,6 +28,18 @@ public class FormatterResolver {
     
     private static final MessageResolver messageResolver = new MessageResolver("com.github.mygreen.cellformatter.format");
     
+    /**
+     * 書式パターンを指定してキャッシュするフォーマッタの件数の上限の初期値
+     * @since 0.11
+     */
+    public static final int DEFAULT_PATTERN_CACHE_CAPACITY = 1024;
+    
+    /**
+     * 書式の作成に失敗した書式パターンを記録する件数の上限の初期値
+     * @since 0.11
+     */
+    public static final int DEFAULT_PARSE_FAILURE_CACHE_CAPACITY = 256;
+    
     /**
      * カスタム書式のインスタンスを作成する。
      */
@@ -38,18 +61,119 @@ public class FormatterResolver {
     private static final Locale[] JAPANESE_LOCALES = new Locale[]{Locale.JAPANESE, Locale.JAPAN, LOCALE_JAPANESE};
     
     /**
-     * 書式のパターンとフォーマッターのマップ
+     * 組み込み書式のインデックス番号の最大値
+     */
+    static final int MAX_BUILTIN_FORMAT_INDEX = 58;
+    
+    /**
+     * インデックス番号以外で定義されている特別な書式の名前
+     */
+    static final String[] SPECIAL_FORMAT_NAMES = new String[]{"F800", "F400"};
+    
+    /**
+     * 組み込み書式で、ロケールごとの書式を検索するロケール
+     */
+    static final Locale[] DEFAULT_FORMAT_LOCALES = new Locale[]{Locale.JAPANESE};
+    
+    /**
+     * 書式のパターンとフォーマッターのマップ。
+     * <p>組み込み書式など、削除しないフォーマッタを保持する。
      */
     private Map<String, CellFormatter> patternFormatterMap = new ConcurrentHashMap<>();
     
+    /**
+     * 書式のパターンとフォーマッターの、件数の上限があるキャッシュ
+     */
+    private final BoundedPatternCache<CellFormatter> patternFormatterCache = new BoundedPatternCache<>(DEFAULT_PATTERN_CACHE_CAPACITY);
+    
+    /**
+     * 書式パターンの正規形のキーとフォーマッターの、件数の上限があるキャッシュ。
+     * <p>記述が異なるが同じ結果になる書式パターンで、フォーマッタを共有するために利用する。
+     */
+    private final BoundedPatternCache<CellFormatter> canonicalFormatterCache = new BoundedPatternCache<>(DEFAULT_PATTERN_CACHE_CAPACITY);
+    
+    /**
+     * 同じ結果になる書式パターンで、フォーマッタを共有するかどうか
+     */
+    private volatile boolean shareCanonicalPattern = false;
+    
+    /**
+     * 書式の作成に失敗した書式パターンと、その際の例外の、件数の上限があるキャッシュ
+     */
+    private final BoundedPatternCache<CustomFormatterParseException> parseFailureCache = new BoundedPatternCache<>(DEFAULT_PARSE_FAILURE_CACHE_CAPACITY);
+    
+    /**
+     * 書式の作成に失敗した場合に、代わりに利用するフォーマッタ
+     */
+    private volatile CellFormatter fallbackFormatter;
+    
+    /**
+     * 書式のパターンと、作成中のフォーマッタのマップ。
+     * <p>同じ書式を同時に作成しないようにするため、作成が終わるまで保持する。
+     */
+    private final ConcurrentMap<String, FutureTask<CellFormatter>> compilingFormatterMap = new ConcurrentHashMap<>();
+    
+    /**
+     * フォーマッタを作成するメソッドが、サブクラスでオーバーライドされているかどうか。
+     */
+    private final boolean formatterFactoryOverridden;
+    
+    /**
+     * 組み込み書式を、{@link BuiltinFormatterRegistry}と共有するかどうか。
+     */
+    private final boolean shareDefaultFormat;
+    
+    /**
+     * 共有する組み込み書式を参照するかどうか。
+     * <p>{@link #clearFormat()}で無効になり、{@link #registerDefaultFormat()}で有効になる。
+     */
+    private volatile boolean defaultFormatRegistered;
+    
     /**
      * インスタンスを作成する。
      * <p>ビルドインフォーマットなどのキャッシュ情報を予め登録する。
+     * <p>組み込み書式のフォーマッタは、インデックス番号ごとに最初に参照された際にJVM内で1度だけ作成し、全てのインスタンスで共有します。
+     *    ただし、{@link #createDefaultFormatter(String, Locale...)}や{@link #createFormatter(String)}を
+     *    オーバーライドしている場合は、インスタンスごとに全て作成します。</p>
      */
     public FormatterResolver() {
+        this(true, true);
+    }
+    
+    /**
+     * 組み込み書式の扱いを指定して、インスタンスを作成する。
+     * @since 0.11
+     * @param shareDefaultFormat 組み込み書式を{@link BuiltinFormatterRegistry}と共有するかどうか。
+     * @param registerDefaultFormat 組み込み書式を登録するかどうか。
+     */
+    FormatterResolver(final boolean shareDefaultFormat, final boolean registerDefaultFormat) {
+        this.formatterFactoryOverridden = isOverriddenFormatterFactory(getClass());
+        this.shareDefaultFormat = shareDefaultFormat && !formatterFactoryOverridden;
+        
         clearFormat();
         
-        registerDefaultFormat();
+        if(registerDefaultFormat) {
+            registerDefaultFormat();
+        }
+    }
+    
+    /**
+     * フォーマッタを作成するメソッドが、サブクラスでオーバーライドされているかどうか。
+     * @param clazz 判定対象のクラス。
+     * @return true:オーバーライドされている場合。
+     */
+    private static boolean isOverriddenFormatterFactory(final Class<?> clazz) {
+        
+        for(Class<?> target = clazz; target != FormatterResolver.class; target = target.getSuperclass()) {
+            for(Method method : target.getDeclaredMethods()) {
+                final String name = method.getName();
+                if(name.equals("createDefaultFormatter") || name.equals("createFormatter")) {
+                    return true;
+                }
+            }
+        }
+        
+        return false;
     }
     
     /**
@@ -62,21 +186,43 @@ public class FormatterResolver {
         
         // パターン指定の指定のフォーマッタの初期化
         patternFormatterMap.clear();
+        patternFormatterCache.clear();
+        canonicalFormatterCache.clear();
+        parseFailureCache.clear();
+        
+        // 共有する組み込み書式の無効化
+        defaultFormatRegistered = false;
         
     }
     
     /**
      * キャッシュに初期値データを登録する。
      * ・ロケールによって切り替わるフォーマットや、間違った組み込みフォーマットの場合を登録しておく。
+     * <p>組み込み書式を共有する場合は、フォーマッタを作成せず、共有する組み込み書式を参照するようにします。
+     *    フォーマッタは、最初に参照された際に作成します。</p>
      */
     public synchronized void registerDefaultFormat() {
         
+        if(shareDefaultFormat) {
+            // 組み込み書式を上書きしているフォーマッタを削除し、共有するものを参照する
+            final BuiltinFormatterRegistry registry = BuiltinFormatterRegistry.getInstance();
+            for(Short formatIndex : registry.getFormatIndexes()) {
+                indexFormatterMap.remove(formatIndex);
+            }
+            
+            for(String formatPattern : registry.getFormatPatterns()) {
+                patternFormatterMap.remove(formatPattern);
+            }
+            
+            defaultFormatRegistered = true;
+            return;
+        }
         
-        final Locale[] availableLocales = new Locale[]{Locale.JAPANESE};
+        final Locale[] availableLocales = DEFAULT_FORMAT_LOCALES;
         
         
         // 組み込み書式の登録
-        for(int i=0; i <= 58; i++) {
+        for(int i=0; i <= MAX_BUILTIN_FORMAT_INDEX; i++) {
             
             final CellFormatter formatter = createDefaultFormatter(String.valueOf(i), availableLocales);
             if(formatter != null) {
@@ -87,12 +233,9 @@ public class FormatterResolver {
         }
         
         // 特別な書式
-        final String[] names = new String[]{"F800", "F400"};
-        for(String name : names) {
+        for(String name : SPECIAL_FORMAT_NAMES) {
             
-            final String key = String.format("format.%s", name);
-            
-            final String defaultFormat = messageResolver.getMessage(key);
+            final String defaultFormat = getDefaultFormatPattern(name);
             if(defaultFormat == null) {
                 continue;
             }
@@ -105,6 +248,16 @@ public class FormatterResolver {
         
     }
     
+    /**
+     * プロパティに定義されている組み込み書式のパターンを取得する。
+     * @since 0.11
+     * @param name 書式の名前。({@literal format.<書式の名前>=})
+     * @return 定義されていない場合は、nullを返す。
+     */
+    static String getDefaultFormatPattern(final String name) {
+        return messageResolver.getMessage(String.format("format.%s", name));
+    }
+    
     /**
      * 指定したインデックスでプロパティに定義されているフォーマットを作成する。
      * @param name 書式の名前。({@literal format.<書式の名前>=})
@@ -121,6 +274,7 @@ public class FormatterResolver {
         }
         
         CellFormatter formatter = createFormatter(defaultFormat);
+        LocaleSwitchFormatter createdSwitchFormatter = null;
         
         // ロケールのフォーマットの取得
         for(Locale locale : locales) {
@@ -138,6 +292,7 @@ public class FormatterResolver {
                 // LocaleSwitchFormatterに入れ替える。
                 switchFormatter = new LocaleSwitchFormatter(formatter);
                 formatter = switchFormatter;
+                createdSwitchFormatter = switchFormatter;
             }
             
             // ロケールごとのフォーマットの登録
@@ -150,6 +305,11 @@ public class FormatterResolver {
             
         }
         
+        if(createdSwitchFormatter != null) {
+            // 組み込み書式は複数のインスタンスで共有するため、変更できないようにする
+            createdSwitchFormatter.freeze();
+        }
+        
         return formatter;
         
     }
@@ -160,7 +320,11 @@ public class FormatterResolver {
      * @return true: 事前に登録されているものやキャッシュされているインデックス番号の場合。
      */
     public boolean canResolve(final short formatIndex) {
-        return indexFormatterMap.containsKey(formatIndex);
+        if(indexFormatterMap.containsKey(formatIndex)) {
+            return true;
+        }
+        
+        return defaultFormatRegistered && BuiltinFormatterRegistry.getInstance().containsIndex(formatIndex);
     }
     
     /**
@@ -170,7 +334,11 @@ public class FormatterResolver {
      */
     public boolean canResolve(final String formatPattern) {
         final String key = (formatPattern == null ? "" : formatPattern);
-        return patternFormatterMap.containsKey(key);
+        if(patternFormatterMap.containsKey(key) || patternFormatterCache.containsKey(key)) {
+            return true;
+        }
+        
+        return defaultFormatRegistered && BuiltinFormatterRegistry.getInstance().containsPattern(key);
     }
     
     /**
@@ -180,7 +348,12 @@ public class FormatterResolver {
      */
     public CellFormatter getFormatter(final short formatIndex) {
         
-        return indexFormatterMap.get(formatIndex);
+        final CellFormatter formatter = indexFormatterMap.get(formatIndex);
+        if(formatter != null || !defaultFormatRegistered) {
+            return formatter;
+        }
+        
+        return BuiltinFormatterRegistry.getInstance().getFormatter(formatIndex);
     }
     
     /**
@@ -191,7 +364,19 @@ public class FormatterResolver {
     public CellFormatter getFormatter(final String formatPattern) {
         
         final String key = (formatPattern == null ? "" : formatPattern);
-        return patternFormatterMap.get(key);
+        CellFormatter formatter = patternFormatterMap.get(key);
+        if(formatter != null) {
+            return formatter;
+        }
+        
+        if(defaultFormatRegistered) {
+            formatter = BuiltinFormatterRegistry.getInstance().getFormatter(key);
+            if(formatter != null) {
+                return formatter;
+            }
+        }
+        
+        return patternFormatterCache.get(key);
     }
     
     /**
@@ -206,6 +391,234 @@ public class FormatterResolver {
         
     }
     
+    /**
+     * 書式のインデックス番号とパターンから、フォーマッタを解決する。
+     * <p>インデックス番号、書式パターンの順にキャッシュを検索し、登録されていない場合はパターンから新たに作成します。
+     * @since 0.11
+     * @param formatIndex 書式のインデックス番号。
+     * @param formatPattern 書式パターン。
+     * @param register 新たに作成したフォーマッタを、書式パターンを指定してキャッシュに登録するかどうか。
+     *        登録したフォーマッタは、キャッシュの上限を超えた場合に削除されます。
+     *        登録する場合は、{@link #getOrCompile(String)}で作成します。
+     *        登録しない場合も、作成に失敗した書式パターンは記録し、再度解析せずに失敗として扱います。
+     * @return 解決したフォーマッタ。
+     * @throws CustomFormatterParseException 書式が不正で、代わりに利用するフォーマッタが設定されていない場合。
+     */
+    public CellFormatter resolveFormatter(final short formatIndex, final String formatPattern, final boolean register) {
+        
+        CellFormatter formatter = getFormatter(formatIndex);
+        if(formatter != null) {
+            return formatter;
+        }
+        
+        if(register) {
+            return getOrCompile(formatPattern);
+        }
+        
+        formatter = getFormatter(formatPattern);
+        if(formatter != null) {
+            return formatter;
+        }
+        
+        final String key = (formatPattern == null ? "" : formatPattern);
+        final CustomFormatterParseException failure = parseFailureCache.get(key);
+        if(failure != null) {
+            // 以前に作成に失敗している場合
+            return getFallbackFormatterFor(failure);
+        }
+        
+        try {
+            return createFormatter(formatPattern);
+        } catch(CustomFormatterParseException e) {
+            parseFailureCache.put(key, e);
+            return getFallbackFormatter(e);
+        }
+    }
+    
+    /**
+     * 書式パターンに対するフォーマッタをキャッシュから取得し、登録されていない場合は新たに作成してキャッシュに登録する。
+     * <p>複数のスレッドが同じ書式パターンを同時に要求した場合、フォーマッタの作成は1度だけ行い、
+     *    他のスレッドは作成が終わるのを待って同じフォーマッタを取得します。
+     *    異なる書式パターンの作成は、互いに待ち合わせません。</p>
+     * <p>書式が不正で作成に失敗した書式パターンは記録しておき、再度解析せずに失敗として扱います。
+     *    失敗した場合は、{@link #setFallbackFormatter(CellFormatter)}で設定したフォーマッタを返します。
+     *    設定していない場合は、例外をスローします。</p>
+     * @since 0.11
+     * @param formatPattern 書式パターン。
+     * @return 解決したフォーマッタ。
+     * @throws CustomFormatterParseException 書式が不正で、代わりに利用するフォーマッタが設定されていない場合。
+     */
+    public CellFormatter getOrCompile(final String formatPattern) {
+        
+        CellFormatter formatter = getFormatter(formatPattern);
+        if(formatter != null) {
+            return formatter;
+        }
+        
+        final String key = (formatPattern == null ? "" : formatPattern);
+        final CustomFormatterParseException failure = parseFailureCache.get(key);
+        if(failure != null) {
+            // 以前に作成に失敗している場合
+            return getFallbackFormatterFor(failure);
+        }
+        
+        final FutureTask<CellFormatter> task = new FutureTask<>(new Callable<CellFormatter>() {
+            
+            @Override
+            public CellFormatter call() throws Exception {
+                return compileFormatter(formatPattern);
+            }
+        });
+        
+        final FutureTask<CellFormatter> compilingTask = compilingFormatterMap.putIfAbsent(key, task);
+        if(compilingTask != null) {
+            // 他のスレッドが作成中の場合は、終わるのを待つ
+            try {
+                return getCompiledFormatter(compilingTask, key, false);
+            } catch(CustomFormatterParseException e) {
+                return getFallbackFormatter(e);
+            }
+        }
+        
+        try {
+            // 待ち合わせている間に、他のスレッドが作成を終えている場合
+            formatter = getFormatter(key);
+            if(formatter != null) {
+                return formatter;
+            }
+            
+            task.run();
+            try {
+                formatter = getCompiledFormatter(task, key, true);
+            } catch(CustomFormatterParseException e) {
+                parseFailureCache.put(key, e);
+                return getFallbackFormatter(e);
+            }
+            
+            cacheFormatter(key, formatter);
+            return formatter;
+            
+        } finally {
+            compilingFormatterMap.remove(key, task);
+        }
+    }
+    
+    /**
+     * 書式パターンからフォーマッタを作成する。
+     * <p>同じ結果になる書式パターンのフォーマッタを作成済みの場合は、そのフォーマッタを返します。
+     * @param formatPattern 書式パターン。
+     * @return 作成したフォーマッタ。
+     */
+    private CellFormatter compileFormatter(final String formatPattern) {
+        
+        if(!isCanonicalPatternApplicable()) {
+            return createFormatter(formatPattern);
+        }
+        
+        // 分割したトークンは、正規形のキーの作成とフォーマッタの作成の両方で利用する
+        final TokenStore store = new CustomFormatTokenizer().parse(formatPattern);
+        final String canonicalKey = FormatPatternCanonicalizer.canonicalize(store);
+        CellFormatter formatter = canonicalFormatterCache.get(canonicalKey);
+        if(formatter != null) {
+            return formatter;
+        }
+        
+        formatter = customFormatterFactory.create(formatPattern, store);
+        canonicalFormatterCache.put(canonicalKey, formatter);
+        return formatter;
+    }
+    
+    /**
+     * 正規形のキーでフォーマッタを共有できるかどうか。
+     * <p>書式の解析方法が標準のものと異なる場合は、同じ結果になるとは限らないため共有しない。
+     * @return true:共有できる場合。
+     */
+    private boolean isCanonicalPatternApplicable() {
+        return shareCanonicalPattern
+                && !formatterFactoryOverridden
+                && customFormatterFactory.getClass() == CustomFormatterFactory.class;
+    }
+    
+    /**
+     * 書式の作成に失敗した場合に、代わりに利用するフォーマッタを取得する。
+     * @param e 書式の作成に失敗した際の例外。
+     * @return 代わりに利用するフォーマッタ。
+     * @throws CustomFormatterParseException 代わりに利用するフォーマッタが設定されていない場合。
+     */
+    private CellFormatter getFallbackFormatter(final CustomFormatterParseException e) {
+        
+        final CellFormatter formatter = fallbackFormatter;
+        if(formatter == null) {
+            throw e;
+        }
+        
+        return formatter;
+    }
+    
+    /**
+     * 以前に作成に失敗した書式パターンに対して、代わりに利用するフォーマッタを取得する。
+     * <p>代わりに利用するフォーマッタが設定されている場合は、例外を作成せずにそのまま返します。
+     * @param failure 以前に作成に失敗した際の例外。
+     * @return 代わりに利用するフォーマッタ。
+     * @throws CustomFormatterParseException 代わりに利用するフォーマッタが設定されていない場合。
+     */
+    private CellFormatter getFallbackFormatterFor(final CustomFormatterParseException failure) {
+        
+        final CellFormatter formatter = fallbackFormatter;
+        if(formatter == null) {
+            throw new CustomFormatterParseException(failure.getPattern(), failure.getMessage());
+        }
+        
+        return formatter;
+    }
+    
+    /**
+     * 作成中のフォーマッタを、作成が終わるまで待って取得する。
+     * <p>作成時に例外が発生した場合、作成したスレッドにはその例外をスローします。
+     *    作成を待っていたスレッドには、例外のインスタンスを共有しないよう、元の例外を原因とした新しい例外をスローします。
+     * @param task フォーマッタを作成するタスク。
+     * @param formatPattern 書式パターン。
+     * @param owner 呼び出したスレッドがタスクを実行したかどうか。
+     * @return 作成したフォーマッタ。
+     */
+    private static CellFormatter getCompiledFormatter(final FutureTask<CellFormatter> task, final String formatPattern,
+            final boolean owner) {
+        
+        boolean interrupted = false;
+        try {
+            while(true) {
+                try {
+                    return task.get();
+                    
+                } catch(InterruptedException e) {
+                    interrupted = true;
+                    
+                } catch(ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if(owner) {
+                        if(cause instanceof RuntimeException) {
+                            throw (RuntimeException) cause;
+                        } else if(cause instanceof Error) {
+                            throw (Error) cause;
+                        }
+                    }
+                    
+                    if(cause instanceof CustomFormatterParseException) {
+                        throw new CustomFormatterParseException(formatPattern, cause.getMessage(), cause);
+                    } else if(cause instanceof Error) {
+                        throw new Error("fail compiling formatter : " + formatPattern, cause);
+                    }
+                    throw new IllegalStateException("fail compiling formatter : " + formatPattern, cause);
+                }
+            }
+            
+        } finally {
+            if(interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
     /**
      * 書式インデックス番号を指定してフォーマッタをキャッシュに登録する。
      * @param formatIndex 書式のインデックス番号。
@@ -218,6 +631,7 @@ public class FormatterResolver {
     
     /**
      * 書式パターンを指定してフォーマッタをキャッシュに登録する。
+     * <p>登録したフォーマッタは、キャッシュの上限を超えても削除されません。
      * @param formatPattern 書式パターン。
      * @param cellFormatter 登録対象のフォーマッタ。
      * @return 以前に登録されたフォーマッタのインスタンス。登録されたフォーマッタがなければ、nullを返す。
@@ -226,6 +640,120 @@ public class FormatterResolver {
         return patternFormatterMap.put(formatPattern, cellFormatter);
     }
     
+    /**
+     * 書式パターンを指定して、件数の上限があるキャッシュにフォーマッタを登録する。
+     * <p>キャッシュの上限を超えた場合は、参照されていないフォーマッタから削除します。
+     * @since 0.11
+     * @param formatPattern 書式パターン。
+     * @param cellFormatter 登録対象のフォーマッタ。
+     * @return 以前にキャッシュされたフォーマッタのインスタンス。キャッシュされたフォーマッタがなければ、nullを返す。
+     * @throws IllegalArgumentException {@literal cellFormatter == null.}
+     */
+    public CellFormatter cacheFormatter(final String formatPattern, final CellFormatter cellFormatter) {
+        ArgUtils.notNull(cellFormatter, "cellFormatter");
+        
+        final String key = (formatPattern == null ? "" : formatPattern);
+        return patternFormatterCache.put(key, cellFormatter);
+    }
+    
+    /**
+     * 書式パターンを指定してキャッシュするフォーマッタの件数の上限を取得する。
+     * @since 0.11
+     * @return 初期値は{@link #DEFAULT_PATTERN_CACHE_CAPACITY}です。
+     */
+    public int getPatternCacheCapacity() {
+        return patternFormatterCache.getCapacity();
+    }
+    
+    /**
+     * 書式パターンを指定してキャッシュするフォーマッタの件数の上限を設定する。
+     * <p>現在キャッシュされている件数が上限を超える場合は、超えた分を削除します。
+     *    {@literal 0}を指定した場合は、書式パターンを指定したキャッシュを行いません。</p>
+     * <p>同じ結果になる書式パターンでフォーマッタを共有するためのキャッシュにも、同じ上限を適用します。</p>
+     * @since 0.11
+     * @param capacity 件数の上限。
+     * @throws IllegalArgumentException {@literal capacity < 0.}
+     */
+    public void setPatternCacheCapacity(final int capacity) {
+        patternFormatterCache.setCapacity(capacity);
+        canonicalFormatterCache.setCapacity(capacity);
+    }
+    
+    /**
+     * 書式パターンを指定してキャッシュされているフォーマッタの件数を取得する。
+     * <p>{@link #registerFormatter(String, CellFormatter)}で登録したフォーマッタは含みません。
+     * @since 0.11
+     * @return キャッシュされている件数。
+     */
+    public int getPatternCacheSize() {
+        return patternFormatterCache.size();
+    }
+    
+    /**
+     * 記述が異なるが同じ結果になる書式パターンで、フォーマッタを共有するかどうかを取得する。
+     * @since 0.11
+     * @return 初期値はfalseです。
+     */
+    public boolean isShareCanonicalPattern() {
+        return shareCanonicalPattern;
+    }
+    
+    /**
+     * 記述が異なるが同じ結果になる書式パターンで、フォーマッタを共有するかどうかを設定する。
+     * <p>書式パターンを正規化したキーが一致する場合に、作成済みのフォーマッタを共有します。
+     *    例えば、{@literal "円"}と{@literal \円}のように文字列の記述方法のみが異なる場合や、
+     *    {@literal [Red]}と{@literal [RED]}のように色の名前の大文字・小文字のみが異なる場合です。
+     *    {@literal 0-}と{@literal 0"-"}のように、囲まれていない記号と引用符で囲まれた記号は共有しません。</p>
+     * <p>共有したフォーマッタの{@link CellFormatter#getPattern()}や{@link CellFormatResult#getSectionPattern()}は、
+     *    最初に作成した書式パターンの記述を返します。
+     *    書式パターンの記述をそのまま取得する必要がない場合にのみ、有効にしてください。</p>
+     * <p>独自の{@link CustomFormatterFactory}を設定している場合は、共有しません。</p>
+     * @since 0.11
+     * @param shareCanonicalPattern trueの場合、共有する。
+     */
+    public void setShareCanonicalPattern(final boolean shareCanonicalPattern) {
+        this.shareCanonicalPattern = shareCanonicalPattern;
+    }
+    
+    /**
+     * 書式の作成に失敗した書式パターンを記録する件数の上限を取得する。
+     * @since 0.11
+     * @return 初期値は{@link #DEFAULT_PARSE_FAILURE_CACHE_CAPACITY}です。
+     */
+    public int getParseFailureCacheCapacity() {
+        return parseFailureCache.getCapacity();
+    }
+    
+    /**
+     * 書式の作成に失敗した書式パターンを記録する件数の上限を設定する。
+     * <p>{@literal 0}を指定した場合は、失敗した書式パターンを記録しません。
+     * @since 0.11
+     * @param capacity 件数の上限。
+     * @throws IllegalArgumentException {@literal capacity < 0.}
+     */
+    public void setParseFailureCacheCapacity(final int capacity) {
+        parseFailureCache.setCapacity(capacity);
+    }
+    
+    /**
+     * 書式の作成に失敗した場合に、代わりに利用するフォーマッタを取得する。
+     * @since 0.11
+     * @return 設定されていない場合は、nullを返す。
+     */
+    public CellFormatter getFallbackFormatter() {
+        return fallbackFormatter;
+    }
+    
+    /**
+     * 書式の作成に失敗した場合に、代わりに利用するフォーマッタを設定する。
+     * <p>例えば、{@link CustomFormatter#DEFAULT_FORMATTER}を設定すると、不正な書式のセルを標準書式でフォーマットします。
+     * @since 0.11
+     * @param fallbackFormatter 代わりに利用するフォーマッタ。nullの場合は、例外をスローします。
+     */
+    public void setFallbackFormatter(final CellFormatter fallbackFormatter) {
+        this.fallbackFormatter = fallbackFormatter;
+    }
+    
     /**
      * 書式パターンを解析して、{@link CellFormatter}のインスタンスを作成するクラスの取得。
      * @return デフォルトは標準のクラスが設定されています。
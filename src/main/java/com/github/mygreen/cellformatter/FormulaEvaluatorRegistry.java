@@ -0,0 +1,168 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * POIの数式を評価する{@link FormulaEvaluator}を、ワークブック単位に保持するクラス。
+ * <p>{@link FormulaEvaluator}は評価結果をキャッシュするため、同じワークブックに対してはインスタンスを再利用することで、
+ *    参照先のセルの再評価を抑止します。
+ * <p>{@link POICellFormatter#setReuseFormulaEvaluator(boolean)}で再利用を有効にした場合に利用します。
+ * <p>{@link FormulaEvaluator}はスレッドセーフではないため、スレッドごとにインスタンスを保持します。
+ *    インスタンスの取得はロックを取得せずに行うため、複数のスレッドから同時に呼び出しても待ち合わせません。
+ *
+ * <h3 class="description">注意事項</h3>
+ * <ul>
+ *   <li>ワークブックはインスタンスの同一性で判定し、{@link FormulaEvaluator}と共に強参照で保持します。
+ *       <br>{@link FormulaEvaluator}自体がワークブックを参照しているため、参照を弱めてもワークブックはGCの対象になりません。
+ *       <br>ワークブックのフォーマットが終わったら、{@link #release(Workbook)}を呼び破棄してください。
+ *       <br>{@link POIWorkbookFormatter}は、ワークブックのフォーマットが終わると自動的に破棄します。</li>
+ *   <li>セルの値を変更した場合は、{@link #notifyUpdateCell(Cell)}または{@link #clearEvaluationCache(Workbook)}を呼び、
+ *       評価結果のキャッシュを破棄する必要があります。</li>
+ * </ul>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class FormulaEvaluatorRegistry {
+
+    /**
+     * ワークブックとスレッドごとの{@link FormulaEvaluator}のマップ
+     */
+    private final ConcurrentMap<WorkbookKey, ConcurrentMap<Thread, FormulaEvaluator>> evaluatorMap = new ConcurrentHashMap<>();
+
+    /**
+     * 現在のスレッド用の{@link FormulaEvaluator}を取得する。
+     * <p>登録されていない場合は、新たに作成して登録します。
+     * @param workbook 評価対象のワークブック。
+     * @return 現在のスレッドで利用する{@link FormulaEvaluator}。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public FormulaEvaluator getFormulaEvaluator(final Workbook workbook) {
+        ArgUtils.notNull(workbook, "workbook");
+
+        final WorkbookKey key = new WorkbookKey(workbook);
+        ConcurrentMap<Thread, FormulaEvaluator> threadMap = evaluatorMap.get(key);
+        if(threadMap == null) {
+            final ConcurrentMap<Thread, FormulaEvaluator> newThreadMap = new ConcurrentHashMap<>();
+            threadMap = evaluatorMap.putIfAbsent(key, newThreadMap);
+            if(threadMap == null) {
+                threadMap = newThreadMap;
+            }
+        }
+
+        // 同じスレッドのエントリは、他のスレッドから追加されない
+        final Thread thread = Thread.currentThread();
+        FormulaEvaluator evaluator = threadMap.get(thread);
+        if(evaluator == null) {
+            evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+            threadMap.put(thread, evaluator);
+        }
+
+        return evaluator;
+    }
+
+    /**
+     * ワークブックに対する全てのスレッドの評価結果のキャッシュを破棄する。
+     * <p>ワークブックの複数のセルの値を変更したときに呼びます。
+     * <p>他のスレッドでフォーマット中に呼び出さないでください。
+     * @param workbook 対象のワークブック。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public void clearEvaluationCache(final Workbook workbook) {
+        ArgUtils.notNull(workbook, "workbook");
+
+        final ConcurrentMap<Thread, FormulaEvaluator> threadMap = evaluatorMap.get(new WorkbookKey(workbook));
+        if(threadMap == null) {
+            return;
+        }
+
+        for(FormulaEvaluator evaluator : threadMap.values()) {
+            evaluator.clearAllCachedResultValues();
+        }
+    }
+
+    /**
+     * セルの値を変更したことを、全てのスレッドの{@link FormulaEvaluator}に通知する。
+     * <p>変更したセルに依存する評価結果のキャッシュのみが破棄されます。
+     * <p>他のスレッドでフォーマット中に呼び出さないでください。
+     * @param cell 値を変更したセル。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public void notifyUpdateCell(final Cell cell) {
+        ArgUtils.notNull(cell, "cell");
+
+        final ConcurrentMap<Thread, FormulaEvaluator> threadMap = evaluatorMap.get(new WorkbookKey(cell.getSheet().getWorkbook()));
+        if(threadMap == null) {
+            return;
+        }
+
+        for(FormulaEvaluator evaluator : threadMap.values()) {
+            evaluator.notifyUpdateCell(cell);
+        }
+    }
+
+    /**
+     * ワークブックに対する{@link FormulaEvaluator}を破棄する。
+     * <p>破棄した後は、ワークブックを保持しません。
+     * @param workbook 対象のワークブック。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public void release(final Workbook workbook) {
+        ArgUtils.notNull(workbook, "workbook");
+        evaluatorMap.remove(new WorkbookKey(workbook));
+    }
+
+    /**
+     * 保持している全ての{@link FormulaEvaluator}を破棄する。
+     */
+    public void releaseAll() {
+        evaluatorMap.clear();
+    }
+
+    /**
+     * 保持しているワークブックの数を取得する。
+     * @return ワークブックの数。
+     */
+    int getWorkbookSize() {
+        return evaluatorMap.size();
+    }
+
+    /**
+     * ワークブックを、インスタンスの同一性で比較するためのキー。
+     */
+    private static final class WorkbookKey {
+
+        private final Workbook workbook;
+
+        private WorkbookKey(final Workbook workbook) {
+            this.workbook = workbook;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(workbook);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            if(!(obj instanceof WorkbookKey)) {
+                return false;
+            }
+            return workbook == ((WorkbookKey) obj).workbook;
+        }
+
+    }
+
+}
@@ -0,0 +1,690 @@
+package com.github.mygreen.cellformatter;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.ExtendedFormatRecord;
+import org.apache.poi.hssf.record.FormatRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.FormulaError;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * Excel97-2003形式(xls)のファイルを、ワークブックのモデルを作成せずにフォーマットするクラス。
+ * <p>POIの{@link HSSFEventFactory}を利用してレコードを順に読み込み、セルの値と書式から直接フォーマットします。
+ *    フォーマットした結果は、1行ごとに{@link FormattedRowHandler}に渡します。
+ *
+ * <h3 class="description">基本的な使い方</h3>
+ * <pre class="highlight"><code class="java">
+ * HSSFStreamingCellFormatter cellFormatter = new HSSFStreamingCellFormatter();
+ *
+ * cellFormatter.format(new File("sample.xls"), Locale.JAPANESE, new FormattedRowHandler() {
+ *     // 省略
+ * });
+ * </code></pre>
+ *
+ * <h3 class="description">注意事項</h3>
+ * <ul>
+ *   <li>メモリ上に保持するのは、処理中の1行分のセルと書式の表、共有文字列の表のみです。</li>
+ *   <li>日時の開始日が1904年かどうかは、ワークブックの{@link DateWindow1904Record}の設定に従います。</li>
+ *   <li>数式は評価せずに、ファイルに保存されている計算結果の値をフォーマットします。</li>
+ *   <li>結合されたセルは考慮しません。</li>
+ * </ul>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class HSSFStreamingCellFormatter {
+
+    /**
+     * 処理対象のレコードのID
+     */
+    private static final short[] RECORD_SIDS = {
+        BOFRecord.sid, EOFRecord.sid, BoundSheetRecord.sid, SSTRecord.sid, DateWindow1904Record.sid,
+        FormatRecord.sid, ExtendedFormatRecord.sid,
+        NumberRecord.sid, LabelSSTRecord.sid, LabelRecord.sid, FormulaRecord.sid, StringRecord.sid,
+        BoolErrRecord.sid, BlankRecord.sid, MulBlankRecord.sid,
+    };
+
+    /**
+     * 数式の計算結果の種類のコード。
+     * <p>{@link FormulaRecord#getCachedResultType()}の値で、POIの{@literal CellType}のコードと同じ値。</p>
+     */
+    private static final int RESULT_TYPE_NUMERIC = 0;
+    private static final int RESULT_TYPE_STRING = 1;
+    private static final int RESULT_TYPE_BOOLEAN = 4;
+    private static final int RESULT_TYPE_ERROR = 5;
+
+    private FormatterResolver formatterResolver = new FormatterResolver();
+
+    /**
+     * パースしたフォーマッタをキャッシュするかどうか。
+     */
+    private boolean cache = true;
+
+    /**
+     * エラーセルの値を空文字として取得するかどうか。
+     */
+    private boolean errorCellAsEmpty = false;
+
+    /**
+     * フォーマット対象の列番号の集合。nullの場合は全ての列。
+     */
+    private BitSet columnProjection;
+
+    /**
+     * ファイルを読み込み、全てのシートのセルをフォーマットする。
+     * @param file 読み込み対象のファイル。
+     * @param handler フォーマットした行を受け取るハンドラ。
+     * @throws IllegalArgumentException {@literal file == null or handler == null.}
+     * @throws IOException ファイルの読み込みに失敗した場合。
+     */
+    public void format(final File file, final FormattedRowHandler handler) throws IOException {
+        format(file, Locale.getDefault(), handler);
+    }
+
+    /**
+     * ロケールを指定してファイルを読み込み、全てのシートのセルをフォーマットする。
+     * @param file 読み込み対象のファイル。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param handler フォーマットした行を受け取るハンドラ。
+     * @throws IllegalArgumentException {@literal file == null or handler == null.}
+     * @throws IOException ファイルの読み込みに失敗した場合。
+     */
+    public void format(final File file, final Locale locale, final FormattedRowHandler handler) throws IOException {
+        ArgUtils.notNull(file, "file");
+
+        try(NPOIFSFileSystem fs = new NPOIFSFileSystem(file, true)) {
+            format(fs.getRoot(), locale, handler);
+        }
+    }
+
+    /**
+     * ロケールを指定してストリームを読み込み、全てのシートのセルをフォーマットする。
+     * @param in 読み込み対象のストリーム。処理後もストリームは閉じません。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param handler フォーマットした行を受け取るハンドラ。
+     * @throws IllegalArgumentException {@literal in == null or handler == null.}
+     * @throws IOException ストリームの読み込みに失敗した場合。
+     */
+    public void format(final InputStream in, final Locale locale, final FormattedRowHandler handler) throws IOException {
+        ArgUtils.notNull(in, "in");
+
+        // POIFSFileSystemは読み込み後にストリームを閉じるため、呼び出し元のストリームは閉じないようにする。
+        try(POIFSFileSystem fs = new POIFSFileSystem(new NonClosingInputStream(in))) {
+            format(fs.getRoot(), locale, handler);
+        }
+    }
+
+    /**
+     * ロケールを指定してワークブックのディレクトリを読み込み、全てのシートのセルをフォーマットする。
+     * @param directory ワークブックを格納したディレクトリ。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param handler フォーマットした行を受け取るハンドラ。
+     * @throws IllegalArgumentException {@literal directory == null or handler == null.}
+     * @throws IOException ファイルの読み込みに失敗した場合。
+     */
+    public void format(final DirectoryNode directory, final Locale locale, final FormattedRowHandler handler) throws IOException {
+        ArgUtils.notNull(directory, "directory");
+        ArgUtils.notNull(handler, "handler");
+
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        final RecordHandler recordHandler = new RecordHandler(runtimeLocale, handler);
+
+        final HSSFRequest request = new HSSFRequest();
+        for(short sid : RECORD_SIDS) {
+            request.addListener(recordHandler, sid);
+        }
+
+        new HSSFEventFactory().processWorkbookEvents(request, directory);
+    }
+
+    /**
+     * 書式のインデックス番号とパターンから、フォーマッタを解決する。
+     * @param formatIndex 書式のインデックス番号
+     * @param formatPattern 書式のパターン
+     * @return フォーマッタ
+     */
+    private CellFormatter resolveCellFormatter(final short formatIndex, final String formatPattern) {
+        return formatterResolver.resolveFormatter(formatIndex, formatPattern, isCache());
+    }
+
+    /**
+     * ブランクセルの結果を作成する。
+     * @return
+     */
+    private static CellFormatResult createBlankCellResult() {
+        CellFormatResult result = new CellFormatResult();
+        result.setCellType(FormatCellType.Blank);
+        result.setText("");
+        return result;
+    }
+
+    /**
+     * エラーセルの値を評価する。
+     * @param errorValue エラーセルの値。
+     * @return
+     */
+    private CellFormatResult getErrorCellValue(final int errorValue) {
+
+        final FormulaError error = FormulaError.forInt(errorValue);
+        final CellFormatResult result = new CellFormatResult();
+        result.setCellType(FormatCellType.Error);
+        result.setValue(error.getCode());
+
+        if(isErrorCellAsEmpty()) {
+            result.setText("");
+        } else {
+            result.setText(error.getString());
+        }
+
+        return result;
+    }
+
+    /**
+     * {@link FormatterResolver}を取得する。
+     * @return
+     */
+    public FormatterResolver getFormatterResolver() {
+        return formatterResolver;
+    }
+
+    /**
+     * {@link FormatterResolver}を設定する。
+     * 独自のものに入れ替える際に利用します。
+     * @param formatterResolver
+     */
+    public void setFormatterResolver(FormatterResolver formatterResolver) {
+        this.formatterResolver = formatterResolver;
+    }
+
+    /**
+     * パースしたフォーマッタをキャッシュするかどうか。
+     * 初期値はtrueです。
+     * @return
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * パースしたフォーマッタをキャッシュするかどうか設定する。
+     * @param cache true:キャッシュする。
+     */
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * エラーセルの値を空文字として取得するかどうか。
+     * 初期値はfalseです。
+     * @return
+     */
+    public boolean isErrorCellAsEmpty() {
+        return errorCellAsEmpty;
+    }
+
+    /**
+     * エラーセルの値を空文字として取得するかどうか設定する。
+     * @param errorCellAsEmpty true:空文字として取得する。
+     */
+    public void setErrorCellAsEmpty(boolean errorCellAsEmpty) {
+        this.errorCellAsEmpty = errorCellAsEmpty;
+    }
+
+
+    /**
+     * フォーマット対象の列番号の集合を取得する。
+     * @since 0.11
+     * @return 設定されていない場合は、nullを返す。
+     */
+    public BitSet getColumnProjection() {
+        return columnProjection == null ? null : (BitSet) columnProjection.clone();
+    }
+
+    /**
+     * フォーマット対象の列番号(0から始まる)の集合を設定する。
+     * <p>指定していない列のセルは、値や書式を読み込まずに読み飛ばします。
+     * @since 0.11
+     * @param columnProjection nullの場合は、全ての列を対象とする。
+     */
+    public void setColumnProjection(BitSet columnProjection) {
+        this.columnProjection = (columnProjection == null ? null : (BitSet) columnProjection.clone());
+    }
+
+    /**
+     * 列がフォーマット対象かどうか。
+     * @param columnIndex 列番号
+     * @return true:フォーマット対象の場合。
+     */
+    private boolean isProjected(final int columnIndex) {
+        final BitSet projection = columnProjection;
+        return projection == null || projection.get(columnIndex);
+    }
+
+    /**
+     * レコードを受け取り、セルをフォーマットするハンドラ。
+     */
+    private final class RecordHandler implements HSSFListener {
+
+        private final Locale locale;
+
+        private final FormattedRowHandler rowHandler;
+
+        private final StreamingCell cell = new StreamingCell();
+
+        private final FormattedRow row = new FormattedRow();
+
+        /**
+         * シートの一覧(シートの順序)
+         */
+        private final List<BoundSheetRecord> boundSheets = new ArrayList<>();
+
+        /**
+         * BOFの位置順に並べたシートの一覧
+         */
+        private BoundSheetRecord[] orderedBoundSheets;
+
+        /**
+         * 独自の書式のインデックス番号と書式パターン
+         */
+        private final Map<Integer, String> formatPatterns = new HashMap<>();
+
+        /**
+         * XFごとの書式のインデックス番号
+         */
+        private short[] xfFormatIndexes = new short[64];
+
+        /**
+         * XFごとの書式パターン
+         */
+        private String[] xfFormatPatterns = new String[64];
+
+        /**
+         * XFごとに解決したフォーマッタ
+         */
+        private CellFormatter[] xfFormatters = new CellFormatter[64];
+
+        private int xfCount;
+
+        private SSTRecord sst;
+
+        /**
+         * 入れ子になったBOFの深さ
+         */
+        private int depth;
+
+        /**
+         * 処理中のサブストリームの個数
+         */
+        private int substreamCount;
+
+        private int sheetIndex = -1;
+
+        private String sheetName;
+
+        private boolean inWorksheet;
+
+        private boolean rowStarted;
+
+        /**
+         * 文字列の結果を持つ数式のセル。次の{@link StringRecord}で値が決まる。
+         */
+        private FormulaRecord pendingFormula;
+
+        private RecordHandler(final Locale locale, final FormattedRowHandler rowHandler) {
+            this.locale = locale;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void processRecord(final Record record) {
+
+            switch(record.getSid()) {
+                case BOFRecord.sid:
+                    startSubstream((BOFRecord) record);
+                    break;
+
+                case EOFRecord.sid:
+                    endSubstream();
+                    break;
+
+                case BoundSheetRecord.sid:
+                    boundSheets.add((BoundSheetRecord) record);
+                    break;
+
+                case SSTRecord.sid:
+                    sst = (SSTRecord) record;
+                    break;
+
+                case DateWindow1904Record.sid:
+                    cell.setDateStart1904(((DateWindow1904Record) record).getWindowing() == 1);
+                    break;
+
+                case FormatRecord.sid:
+                    final FormatRecord formatRecord = (FormatRecord) record;
+                    formatPatterns.put(formatRecord.getIndexCode(), formatRecord.getFormatString());
+                    break;
+
+                case ExtendedFormatRecord.sid:
+                    addExtendedFormat((ExtendedFormatRecord) record);
+                    break;
+
+                default:
+                    if(inWorksheet && depth == 1) {
+                        processCellRecord(record);
+                    }
+                    break;
+            }
+        }
+
+        private void startSubstream(final BOFRecord record) {
+
+            depth++;
+            if(depth != 1 || record.getType() == BOFRecord.TYPE_WORKBOOK) {
+                return;
+            }
+
+            if(orderedBoundSheets == null) {
+                orderedBoundSheets = BoundSheetRecord.orderByBofPosition(boundSheets);
+            }
+
+            // シートのサブストリームはBOFの位置順に出現する。
+            final BoundSheetRecord boundSheet = substreamCount < orderedBoundSheets.length ? orderedBoundSheets[substreamCount] : null;
+            substreamCount++;
+
+            sheetIndex = boundSheet != null ? boundSheets.indexOf(boundSheet) : substreamCount - 1;
+            sheetName = boundSheet != null ? boundSheet.getSheetname() : null;
+            inWorksheet = (record.getType() == BOFRecord.TYPE_WORKSHEET);
+            rowStarted = false;
+            pendingFormula = null;
+
+            rowHandler.startSheet(sheetIndex, sheetName);
+        }
+
+        private void endSubstream() {
+
+            depth--;
+            if(depth != 0 || sheetIndex < 0) {
+                return;
+            }
+
+            if(rowStarted) {
+                rowHandler.handleRow(row);
+                rowStarted = false;
+            }
+
+            rowHandler.endSheet(sheetIndex, sheetName);
+            inWorksheet = false;
+            sheetIndex = -1;
+        }
+
+        private void addExtendedFormat(final ExtendedFormatRecord record) {
+
+            if(xfCount == xfFormatIndexes.length) {
+                final int newLength = xfCount * 2;
+                xfFormatIndexes = Arrays.copyOf(xfFormatIndexes, newLength);
+                xfFormatPatterns = Arrays.copyOf(xfFormatPatterns, newLength);
+                xfFormatters = Arrays.copyOf(xfFormatters, newLength);
+            }
+
+            xfFormatIndexes[xfCount] = record.getFormatIndex();
+            xfCount++;
+        }
+
+        private void processCellRecord(final Record record) {
+
+            if(record instanceof CellValueRecordInterface
+                    && !isProjected(((CellValueRecordInterface) record).getColumn())) {
+                // 対象外の列の場合は、書式を参照せずに読み飛ばす。
+                return;
+            }
+
+            switch(record.getSid()) {
+                case NumberRecord.sid:
+                    final NumberRecord numberRecord = (NumberRecord) record;
+                    resetCell(numberRecord.getRow(), numberRecord.getColumn(), numberRecord.getXFIndex());
+                    cell.setNumberValue(numberRecord.getValue());
+                    addFormattedCell(numberRecord.getXFIndex());
+                    break;
+
+                case LabelSSTRecord.sid:
+                    final LabelSSTRecord labelSSTRecord = (LabelSSTRecord) record;
+                    resetCell(labelSSTRecord.getRow(), labelSSTRecord.getColumn(), labelSSTRecord.getXFIndex());
+                    cell.setTextValue(sst.getString(labelSSTRecord.getSSTIndex()).getString());
+                    addFormattedCell(labelSSTRecord.getXFIndex());
+                    break;
+
+                case LabelRecord.sid:
+                    final LabelRecord labelRecord = (LabelRecord) record;
+                    resetCell(labelRecord.getRow(), labelRecord.getColumn(), labelRecord.getXFIndex());
+                    cell.setTextValue(labelRecord.getValue());
+                    addFormattedCell(labelRecord.getXFIndex());
+                    break;
+
+                case BoolErrRecord.sid:
+                    final BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+                    if(boolErrRecord.isBoolean()) {
+                        resetCell(boolErrRecord.getRow(), boolErrRecord.getColumn(), boolErrRecord.getXFIndex());
+                        cell.setBooleanValue(boolErrRecord.getBooleanValue());
+                        addFormattedCell(boolErrRecord.getXFIndex());
+                    } else {
+                        addResult(boolErrRecord.getRow(), boolErrRecord.getColumn(), getErrorCellValue(boolErrRecord.getErrorValue()));
+                    }
+                    break;
+
+                case BlankRecord.sid:
+                    final BlankRecord blankRecord = (BlankRecord) record;
+                    addResult(blankRecord.getRow(), blankRecord.getColumn(), createBlankCellResult());
+                    break;
+
+                case MulBlankRecord.sid:
+                    final MulBlankRecord mulBlankRecord = (MulBlankRecord) record;
+                    for(int col=mulBlankRecord.getFirstColumn(); col <= mulBlankRecord.getLastColumn(); col++) {
+                        if(!isProjected(col)) {
+                            continue;
+                        }
+                        addResult(mulBlankRecord.getRow(), col, createBlankCellResult());
+                    }
+                    break;
+
+                case FormulaRecord.sid:
+                    processFormulaRecord((FormulaRecord) record);
+                    break;
+
+                case StringRecord.sid:
+                    if(pendingFormula != null) {
+                        resetCell(pendingFormula.getRow(), pendingFormula.getColumn(), pendingFormula.getXFIndex());
+                        cell.setTextValue(((StringRecord) record).getString());
+                        addFormattedCell(pendingFormula.getXFIndex());
+                        pendingFormula = null;
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * 数式のレコードを、保存されている計算結果でフォーマットする。
+         * @param record 数式のレコード
+         */
+        private void processFormulaRecord(final FormulaRecord record) {
+
+            if(record.hasCachedResultString()) {
+                // 値は次のStringRecordに格納されている
+                pendingFormula = record;
+                return;
+            }
+
+            switch(record.getCachedResultType()) {
+                case RESULT_TYPE_NUMERIC:
+                    resetCell(record.getRow(), record.getColumn(), record.getXFIndex());
+                    cell.setNumberValue(record.getValue());
+                    addFormattedCell(record.getXFIndex());
+                    break;
+
+                case RESULT_TYPE_BOOLEAN:
+                    resetCell(record.getRow(), record.getColumn(), record.getXFIndex());
+                    cell.setBooleanValue(record.getCachedBooleanValue());
+                    addFormattedCell(record.getXFIndex());
+                    break;
+
+                case RESULT_TYPE_ERROR:
+                    addResult(record.getRow(), record.getColumn(), getErrorCellValue(record.getCachedErrorValue()));
+                    break;
+
+                case RESULT_TYPE_STRING:
+                    // 空文字の結果
+                    resetCell(record.getRow(), record.getColumn(), record.getXFIndex());
+                    cell.setTextValue("");
+                    addFormattedCell(record.getXFIndex());
+                    break;
+
+                default:
+                    addResult(record.getRow(), record.getColumn(), createBlankCellResult());
+                    break;
+            }
+        }
+
+        /**
+         * XFに対する書式をセルに設定する。
+         * @param rowIndex 行番号
+         * @param columnIndex 列番号
+         * @param xfIndex XFのインデックス
+         */
+        private void resetCell(final int rowIndex, final int columnIndex, final short xfIndex) {
+            final int index = resolveXF(xfIndex);
+            if(index < 0) {
+                cell.reset(rowIndex, columnIndex, (short)0, getFormatPattern((short)0));
+            } else {
+                cell.reset(rowIndex, columnIndex, xfFormatIndexes[index], xfFormatPatterns[index]);
+            }
+        }
+
+        /**
+         * 値を設定したセルをフォーマットして行に追加する。
+         * @param xfIndex XFのインデックス
+         */
+        private void addFormattedCell(final short xfIndex) {
+            final int index = resolveXF(xfIndex);
+            final CellFormatter formatter = (index < 0 ? resolveCellFormatter((short)0, getFormatPattern((short)0)) : xfFormatters[index]);
+            addResult(cell.getRowIndex(), cell.getColumnIndex(), formatter.format(cell, locale));
+        }
+
+        /**
+         * フォーマットした結果を行に追加する。
+         * <p>行番号が変わった場合は、それまでの行をハンドラに渡す。
+         * @param rowIndex 行番号
+         * @param columnIndex 列番号
+         * @param result フォーマットした結果
+         */
+        private void addResult(final int rowIndex, final int columnIndex, final CellFormatResult result) {
+
+            if(rowStarted && row.getRowIndex() != rowIndex) {
+                rowHandler.handleRow(row);
+                rowStarted = false;
+            }
+
+            if(!rowStarted) {
+                row.reset(rowIndex);
+                rowStarted = true;
+            }
+
+            row.add(columnIndex, result);
+        }
+
+        /**
+         * XFに対するフォーマッタを解決する。
+         * @param xfIndex XFのインデックス
+         * @return 表の添え字。定義されていないインデックスの場合は、-1を返す。
+         */
+        private int resolveXF(final short xfIndex) {
+
+            if(xfIndex < 0 || xfIndex >= xfCount) {
+                // 定義されていないXFの場合は、標準書式とする。
+                return -1;
+            }
+
+            final int index = xfIndex;
+            if(xfFormatters[index] == null) {
+                final short formatIndex = xfFormatIndexes[index];
+                xfFormatPatterns[index] = getFormatPattern(formatIndex);
+                xfFormatters[index] = resolveCellFormatter(formatIndex, xfFormatPatterns[index]);
+            }
+
+            return index;
+        }
+
+        /**
+         * 書式のインデックス番号に対する書式パターンを取得する。
+         * <p>ワークブックに定義された書式を優先し、定義されていない場合は組み込み書式を返す。
+         * @param formatIndex 書式のインデックス番号
+         * @return 書式パターン。該当するものがない場合は空文字を返す。
+         */
+        private String getFormatPattern(final short formatIndex) {
+
+            String pattern = formatPatterns.get((int)formatIndex);
+            if(pattern == null) {
+                pattern = BuiltinFormats.getBuiltinFormat(formatIndex);
+            }
+
+            return pattern == null ? "" : pattern;
+        }
+
+    }
+
+    /**
+     * {@link #close()}を呼び出しても、元のストリームを閉じない入力ストリーム。
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+
+        private NonClosingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // 元のストリームは呼び出し元で閉じる
+        }
+
+    }
+
+}
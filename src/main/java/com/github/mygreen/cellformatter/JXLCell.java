@@ -26,7 +26,7 @@ import jxl.format.Format;
 /**
  * JExcel APIのラッパークラス。
  * 
- * @version 0.6
+ * @version 0.11
  * @since 0.4
  * @author T.TSUCHIE
  *
@@ -68,7 +68,7 @@ public class JXLCell implements CommonCell {
         BUILT_IN_FORMATS.put((short)46, "[h]:mm:ss");
     }
     
-    private final Cell cell;
+    private Cell cell;
     
     /**
      * セルを渡してインスタンスを作成する。
@@ -91,6 +91,16 @@ public class JXLCell implements CommonCell {
         return cell;
     }
     
+    /**
+     * ラップするセルを入れ替える。
+     * <p>シート単位のフォーマットで、インスタンスを再利用するために使用します。
+     * @since 0.11
+     * @param cell フォーマット対象のセルのインスタンス。
+     */
+    void setCell(final Cell cell) {
+        this.cell = cell;
+    }
+    
     @Override
     public short getFormatIndex() {
         // セルのスタイル情報の取得
@@ -203,9 +213,9 @@ public class JXLCell implements CommonCell {
             return ((NumberCell) cell).getValue();
             
         } else if(type == CellType.DATE || type == CellType.DATE_FORMULA) {
-            final Date  date = ((DateCell) cell).getDate();
-            final double num = ExcelDateUtils.convertExcelNumber(date, isDateStart1904());
-            return num;
+            // BigDecimalを使用せずに、ミリ秒のまま変換する
+            final long time = ((DateCell) cell).getDate().getTime();
+            return ExcelDateUtils.convertExcelNumber(time, isDateStart1904());
             
         } else {
             return 0;
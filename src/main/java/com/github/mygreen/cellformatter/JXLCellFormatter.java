@@ -1,6 +1,10 @@
 package com.github.mygreen.cellformatter;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
 import com.github.mygreen.cellformatter.lang.JXLUtils;
@@ -8,6 +12,9 @@ import com.github.mygreen.cellformatter.lang.JXLUtils;
 import jxl.Cell;
 import jxl.CellType;
 import jxl.ErrorCell;
+import jxl.Sheet;
+import jxl.Workbook;
+import jxl.format.CellFormat;
 
 
 /**
@@ -62,9 +69,12 @@ import jxl.ErrorCell;
  *       <br>指定しない場合は、会計の書式中の円記号 ￥ が文字化けします。
  *       <br>「Windows-31j」と指定しても文字化けするため、注意してください。
  *   </li>
+ *   <li>シート全体をフォーマットする場合は、{@link #formatSheet(Sheet, Locale, boolean)}や{@link #formatWorkbook(Workbook, Locale)}を利用します。
+ *       <br>セルの書式{@link CellFormat}のインスタンスごとに、解決したフォーマッタを保持して再利用します。
+ *   </li>
  * </ul> 
  * 
- * @version 0.6
+ * @version 0.11
  * @since 0.4
  * @author T.TSUCHIE
  *
@@ -141,6 +151,128 @@ public class JXLCellFormatter {
         ArgUtils.notNull(cell, "cell");
         
         final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        return format(cell, runtimeLocale, new JXLCell(cell, isStartDate1904), null);
+    }
+    
+    /**
+     * ワークブックの全てのシートをフォーマットする。
+     * <p>1904年始まりかどうかは、ワークブックの設定から判定します。
+     * <p>書式{@link CellFormat}ごとに解決したフォーマッタは、全てのシートで共有します。
+     * @since 0.11
+     * @param workbook フォーマット対象のワークブック。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @return シートの順に並んだフォーマット結果。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public List<SheetFormatResult> formatWorkbook(final Workbook workbook, final Locale locale) {
+        ArgUtils.notNull(workbook, "workbook");
+        
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        final boolean isStartDate1904 = JXLUtils.isDateStart1904(workbook);
+        final Map<CellFormat, CellFormatter> formatterMap = new IdentityHashMap<>();
+        
+        final List<SheetFormatResult> results = new ArrayList<>(workbook.getNumberOfSheets());
+        for(int i=0; i < workbook.getNumberOfSheets(); i++) {
+            final long startTime = System.nanoTime();
+            final Sheet sheet = workbook.getSheet(i);
+            final List<FormattedRow> rows = formatRows(sheet, 0, sheet.getRows() - 1, runtimeLocale, isStartDate1904, formatterMap);
+            results.add(new SheetFormatResult(i, sheet.getName(), rows, System.nanoTime() - startTime));
+        }
+        
+        return results;
+    }
+    
+    /**
+     * シートの全ての行をフォーマットする。
+     * @since 0.11
+     * @param sheet フォーマット対象のシート。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param isStartDate1904 ファイルの設定が1904年始まりかどうか。
+     *        {@link JXLUtils#isDateStart1904(jxl.Sheet)}で値を調べます。
+     * @return セルが存在する行を、行番号の順に並べた一覧。
+     * @throws IllegalArgumentException {@literal sheet == null.}
+     */
+    public List<FormattedRow> formatSheet(final Sheet sheet, final Locale locale, final boolean isStartDate1904) {
+        ArgUtils.notNull(sheet, "sheet");
+        return formatSheet(sheet, 0, sheet.getRows() - 1, locale, isStartDate1904);
+    }
+    
+    /**
+     * シートの指定した範囲の行をフォーマットする。
+     * <p>書式{@link CellFormat}ごとに解決したフォーマッタを保持し、同じ書式のセルでは再利用します。
+     * @since 0.11
+     * @param sheet フォーマット対象のシート。
+     * @param firstRow フォーマットする最初の行番号(0から始まる)。
+     * @param lastRow フォーマットする最後の行番号(0から始まる)。シートの行数を超える場合は、最後の行までとする。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param isStartDate1904 ファイルの設定が1904年始まりかどうか。
+     *        {@link JXLUtils#isDateStart1904(jxl.Sheet)}で値を調べます。
+     * @return セルが存在する行を、行番号の順に並べた一覧。
+     * @throws IllegalArgumentException {@literal sheet == null or firstRow < 0.}
+     */
+    public List<FormattedRow> formatSheet(final Sheet sheet, final int firstRow, final int lastRow,
+            final Locale locale, final boolean isStartDate1904) {
+        ArgUtils.notNull(sheet, "sheet");
+        ArgUtils.notMin(firstRow, 0, "firstRow");
+        
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        return formatRows(sheet, firstRow, lastRow, runtimeLocale, isStartDate1904, new IdentityHashMap<CellFormat, CellFormatter>());
+    }
+    
+    /**
+     * シートの行をフォーマットする。
+     * @param sheet シート
+     * @param firstRow 最初の行番号
+     * @param lastRow 最後の行番号
+     * @param locale ロケール
+     * @param isStartDate1904 1904年始まりかどうか。
+     * @param formatterMap 書式とフォーマッタのマップ
+     * @return フォーマットした行の一覧
+     */
+    private List<FormattedRow> formatRows(final Sheet sheet, final int firstRow, final int lastRow,
+            final Locale locale, final boolean isStartDate1904, final Map<CellFormat, CellFormatter> formatterMap) {
+        
+        final int endRow = Math.min(lastRow, sheet.getRows() - 1);
+        final List<FormattedRow> rows = new ArrayList<>(Math.max(endRow - firstRow + 1, 0));
+        
+        JXLCell jxlCell = null;
+        for(int r=firstRow; r <= endRow; r++) {
+            final Cell[] cells = sheet.getRow(r);
+            if(cells.length == 0) {
+                continue;
+            }
+            
+            final FormattedRow row = new FormattedRow();
+            row.reset(r);
+            for(Cell cell : cells) {
+                if(jxlCell == null) {
+                    jxlCell = new JXLCell(cell, isStartDate1904);
+                } else {
+                    jxlCell.setCell(cell);
+                }
+                row.add(cell.getColumn(), format(cell, locale, jxlCell, formatterMap));
+            }
+            rows.add(row);
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * セルの種類に応じてフォーマットする。
+     * @param cell フォーマット対象のセル
+     * @param runtimeLocale ロケール
+     * @param jxlCell セルのラッパー
+     * @param formatterMap 書式とフォーマッタのマップ。nullの場合は保持しない。
+     * @return フォーマットした結果
+     */
+    private CellFormatResult format(final Cell cell, final Locale runtimeLocale, final JXLCell jxlCell,
+            final Map<CellFormat, CellFormatter> formatterMap) {
+        
+        final boolean isStartDate1904 = jxlCell.isDateStart1904();
         final CellType cellType = cell.getType();
         
         if(cellType == CellType.EMPTY) {
@@ -150,19 +282,19 @@ public class JXLCellFormatter {
             return result;
             
         } else if(cellType == CellType.LABEL || cellType == CellType.STRING_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(jxlCell, runtimeLocale, formatterMap);
             
         } else if(cellType == CellType.BOOLEAN || cellType == CellType.BOOLEAN_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(jxlCell, runtimeLocale, formatterMap);
         
         } else if(cellType == CellType.ERROR || cellType == CellType.FORMULA_ERROR) {
             return getErrorCellValue(cell, runtimeLocale, isStartDate1904);
             
         } else if(cellType == CellType.DATE || cellType == CellType.DATE_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(jxlCell, runtimeLocale, formatterMap);
             
         } else if(cellType == CellType.NUMBER || cellType == CellType.NUMBER_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(jxlCell, runtimeLocale, formatterMap);
             
         } else {
             final CellFormatResult result = new CellFormatResult();
@@ -249,35 +381,39 @@ public class JXLCellFormatter {
     
     /**
      * セルの値をフォーマットする。
-     * @param cell フォーマット対象のセル
+     * @param jxlCell フォーマット対象のセル
      * @param locale ロケール
-     * @param isStartDate1904 1904年始まりかどうか。
+     * @param formatterMap 書式とフォーマッタのマップ。nullの場合は保持しない。
      * @return
      */
-    private CellFormatResult getCellValue(final Cell cell, final Locale locale, final boolean isStartDate1904) {
+    private CellFormatResult getCellValue(final JXLCell jxlCell, final Locale locale,
+            final Map<CellFormat, CellFormatter> formatterMap) {
         
-        final JXLCell jxlCell = new JXLCell(cell, isStartDate1904);
-        final short formatIndex = jxlCell.getFormatIndex();
-        final String formatPattern = jxlCell.getFormatPattern();
+        if(formatterMap == null) {
+            return resolveCellFormatter(jxlCell).format(jxlCell, locale);
+        }
         
-        if(formatterResolver.canResolve(formatIndex)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatIndex);
-            return cellFormatter.format(jxlCell, locale);
-            
-        } else if(formatterResolver.canResolve(formatPattern)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatPattern);
-            return cellFormatter.format(jxlCell, locale);
-            
-        } else {
-            // キャッシュに登録する。
-            final CellFormatter cellFormatter = formatterResolver.createFormatter(formatPattern) ;
-            if(isCache()) {
-                formatterResolver.registerFormatter(formatPattern, cellFormatter);
-            }
-            return cellFormatter.format(jxlCell, locale);
-            
+        final CellFormat cellFormat = jxlCell.getCell().getCellFormat();
+        CellFormatter cellFormatter = formatterMap.get(cellFormat);
+        if(cellFormatter == null) {
+            cellFormatter = resolveCellFormatter(jxlCell);
+            formatterMap.put(cellFormat, cellFormatter);
         }
         
+        return cellFormatter.format(jxlCell, locale);
+    }
+    
+    /**
+     * 書式のインデックスとパターンから、セルに対するフォーマッタを解決する。
+     * @since 0.11
+     * @param jxlCell フォーマット対象のセル
+     * @return フォーマッタ
+     */
+    private CellFormatter resolveCellFormatter(final JXLCell jxlCell) {
+        
+        final short formatIndex = jxlCell.getFormatIndex();
+        final String formatPattern = jxlCell.getFormatPattern();
+        return formatterResolver.resolveFormatter(formatIndex, formatPattern, isCache());
     }
     
     /**
@@ -1,5 +1,6 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -10,8 +11,11 @@ import com.github.mygreen.cellformatter.lang.ArgUtils;
 /**
  * ロケールによって、フォーマッタを切り替えるフォーマッタ。
  * <p>該当するロケールがない場合、標準のフォーマッタを返す。
+ * <p>{@link FormatterResolver}が作成した組み込み書式のインスタンスは固定化されており、ロケールを追加登録できません。
+ *    ロケールを追加する場合は、{@link #copy()}で複製したインスタンスに登録し、
+ *    {@link FormatterResolver#registerFormatter(short, CellFormatter)}で登録し直します。
  *
- * @version 0.10
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -21,6 +25,11 @@ public class LocaleSwitchFormatter extends CellFormatter {
 
     private final Map<Locale, CellFormatter> formatterMap = new ConcurrentHashMap<>();
 
+    /**
+     * 固定化されているかどうか
+     */
+    private volatile boolean frozen;
+
     /**
      * 標準のフォーマッタを指定するコンストラクタ
      * @param defaultFormatter 標準のフォーマッタ。
@@ -39,12 +48,35 @@ public class LocaleSwitchFormatter extends CellFormatter {
         return getCellFormatter(locale).format(cell, locale);
     }
 
+    @Override
+    public void formatTo(final CommonCell cell, final Locale locale, final Appendable out) throws IOException {
+
+        ArgUtils.notNull(cell, "cell");
+
+        getCellFormatter(locale).formatTo(cell, locale, out);
+    }
+
+    @Override
+    public CellFormatResult format(final double value, final Locale locale) {
+        return getCellFormatter(locale).format(value, locale);
+    }
+
+    @Override
+    public String formatAsString(final double value, final Locale locale) {
+        return getCellFormatter(locale).formatAsString(value, locale);
+    }
+
+    @Override
+    public void formatTo(final double value, final Locale locale, final Appendable out) throws IOException {
+        getCellFormatter(locale).formatTo(value, locale, out);
+    }
+
     /**
      * ロケールに対応するセルフォーマットを取得する
      * @param locale ロケール
      * @return ロケールに対応するセルフォーマッタ。ロケールがnullの場合は、デフォルトのフォーマッタを返す。
      */
-    private CellFormatter getCellFormatter(final Locale locale) {
+    CellFormatter getCellFormatter(final Locale locale) {
         if(locale == null) {
             return defaultFormatter;
 
@@ -62,11 +94,16 @@ public class LocaleSwitchFormatter extends CellFormatter {
      * @return 現在の自身のインスタンス。
      * @throws IllegalArgumentException {@literal cellFormatter == null.}
      * @throws IllegalArgumentException {@literal locales == null || locales.length == 0.}
+     * @throws IllegalStateException 固定化されている場合。
      */
-    public LocaleSwitchFormatter register(final CellFormatter cellFormatter, final Locale... locales) {
+    public synchronized LocaleSwitchFormatter register(final CellFormatter cellFormatter, final Locale... locales) {
         ArgUtils.notNull(cellFormatter, "cellFormatter");
         ArgUtils.notEmpty(locales, "locales");
 
+        if(frozen) {
+            throw new IllegalStateException("formatter is frozen : " + defaultFormatter.getPattern());
+        }
+
         for(Locale locale : locales) {
             formatterMap.put(locale, cellFormatter);
         }
@@ -74,6 +111,37 @@ public class LocaleSwitchFormatter extends CellFormatter {
         return this;
     }
 
+    /**
+     * フォーマッタを固定化し、以降はロケールを登録できないようにする。
+     * <p>固定化した後に{@link #register(CellFormatter, Locale...)}を呼ぶと、{@link IllegalStateException}がスローされます。</p>
+     * <p>既に固定化されている場合は、何もしません。</p>
+     * @since 0.11
+     */
+    public synchronized void freeze() {
+        this.frozen = true;
+    }
+
+    /**
+     * 固定化されているかどうか。
+     * @since 0.11
+     * @return true:固定化されている場合。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * 標準のフォーマッタとロケールごとのフォーマッタを引き継いだ、固定化されていないインスタンスを作成する。
+     * <p>固定化されたインスタンスに、ロケールを追加登録する際に利用します。</p>
+     * @since 0.11
+     * @return 複製したインスタンス。
+     */
+    public LocaleSwitchFormatter copy() {
+        final LocaleSwitchFormatter copied = new LocaleSwitchFormatter(defaultFormatter);
+        copied.formatterMap.putAll(formatterMap);
+        return copied;
+    }
+
     @Override
     public String getPattern(final Locale locale) {
         return getCellFormatter(locale).getPattern();
@@ -0,0 +1,235 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * シートの結合領域を検索するための索引。
+ * <p>結合領域を行の範囲ごとのバケットに振り分けておき、セルの位置から結合領域を検索します。
+ * <p>結合領域の値を持つセルの位置は、初回の検索時に解決して保持します。
+ *
+ * <h3 class="description">注意事項</h3>
+ * <ul>
+ *   <li>シート自体の参照は保持しないため、検索時に引数で渡す必要があります。</li>
+ *   <li>作成後にシートの結合領域やセルの値を変更した場合は、索引を作成し直す必要があります。</li>
+ * </ul>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class MergedRegionIndex {
+
+    /**
+     * 1つのバケットの行数を表すビット数。(32行単位)
+     */
+    private static final int BUCKET_SHIFT = 5;
+
+    /**
+     * 値を持つセルの位置が未解決であることを表す値。
+     */
+    private static final long UNRESOLVED = -2L;
+
+    /**
+     * 値を持つセルが存在しないことを表す値。
+     */
+    private static final long NOT_FOUND = -1L;
+
+    private static final int[] EMPTY_BUCKET = new int[0];
+
+    /**
+     * 結合領域
+     */
+    private final CellRangeAddress[] regions;
+
+    /**
+     * バケットの開始番号
+     */
+    private final int firstBucket;
+
+    /**
+     * バケットごとの結合領域のインデックス
+     */
+    private final int[][] buckets;
+
+    /**
+     * 結合領域ごとの値を持つセルの位置。{@literal (行番号 << 32 | 列番号)}の形式。
+     */
+    private final AtomicLongArray valuePositions;
+
+    /**
+     * シートの結合領域を元に索引を作成する。
+     * @param sheet 対象のシート。
+     * @return 作成した索引。
+     * @throws IllegalArgumentException {@literal sheet == null.}
+     */
+    public static MergedRegionIndex create(final Sheet sheet) {
+        ArgUtils.notNull(sheet, "sheet");
+        return new MergedRegionIndex(sheet.getMergedRegions());
+    }
+
+    /**
+     * 結合領域を指定してインスタンスを作成する。
+     * @param mergedRegions 結合領域の一覧。
+     * @throws IllegalArgumentException {@literal mergedRegions == null.}
+     */
+    public MergedRegionIndex(final List<CellRangeAddress> mergedRegions) {
+        ArgUtils.notNull(mergedRegions, "mergedRegions");
+
+        this.regions = mergedRegions.toArray(new CellRangeAddress[mergedRegions.size()]);
+        this.valuePositions = new AtomicLongArray(regions.length);
+
+        if(regions.length == 0) {
+            this.firstBucket = 0;
+            this.buckets = new int[0][];
+            return;
+        }
+
+        int minBucket = Integer.MAX_VALUE;
+        int maxBucket = Integer.MIN_VALUE;
+        for(int i=0; i < regions.length; i++) {
+            minBucket = Math.min(minBucket, regions[i].getFirstRow() >> BUCKET_SHIFT);
+            maxBucket = Math.max(maxBucket, regions[i].getLastRow() >> BUCKET_SHIFT);
+            valuePositions.set(i, UNRESOLVED);
+        }
+
+        // バケットごとの個数を数えてから振り分ける
+        final int[] counts = new int[maxBucket - minBucket + 1];
+        for(CellRangeAddress region : regions) {
+            for(int b=region.getFirstRow() >> BUCKET_SHIFT; b <= region.getLastRow() >> BUCKET_SHIFT; b++) {
+                counts[b - minBucket]++;
+            }
+        }
+
+        final int[][] table = new int[counts.length][];
+        for(int i=0; i < counts.length; i++) {
+            table[i] = counts[i] == 0 ? EMPTY_BUCKET : new int[counts[i]];
+        }
+
+        Arrays.fill(counts, 0);
+        for(int i=0; i < regions.length; i++) {
+            for(int b=regions[i].getFirstRow() >> BUCKET_SHIFT; b <= regions[i].getLastRow() >> BUCKET_SHIFT; b++) {
+                table[b - minBucket][counts[b - minBucket]++] = i;
+            }
+        }
+
+        this.firstBucket = minBucket;
+        this.buckets = table;
+    }
+
+    /**
+     * 結合領域の個数を取得する。
+     * @return 結合領域の個数。
+     */
+    public int size() {
+        return regions.length;
+    }
+
+    /**
+     * 指定した位置を含む結合領域を取得する。
+     * @param rowIndex 行番号(0から始まる)。
+     * @param columnIndex 列番号(0から始まる)。
+     * @return 結合領域に含まれない場合は、nullを返す。
+     */
+    public CellRangeAddress findRegion(final int rowIndex, final int columnIndex) {
+        final int index = findRegionIndex(rowIndex, columnIndex, 0);
+        return index < 0 ? null : regions[index];
+    }
+
+    /**
+     * 指定した位置を含む結合領域の中で、値を持つセルを取得する。
+     * <p>結合領域を行、列の順に走査して、最初の非空セルを返します。
+     * @param sheet 索引の作成元のシート。
+     * @param rowIndex 行番号(0から始まる)。
+     * @param columnIndex 列番号(0から始まる)。
+     * @return 結合領域に含まれない場合、または値を持つセルがない場合は、nullを返す。
+     * @throws IllegalArgumentException {@literal sheet == null.}
+     */
+    public Cell findValueCell(final Sheet sheet, final int rowIndex, final int columnIndex) {
+        ArgUtils.notNull(sheet, "sheet");
+
+        int index = findRegionIndex(rowIndex, columnIndex, 0);
+        while(index >= 0) {
+
+            long position = valuePositions.get(index);
+            if(position == UNRESOLVED) {
+                position = resolveValuePosition(sheet, regions[index]);
+                valuePositions.set(index, position);
+            }
+
+            if(position != NOT_FOUND) {
+                final Row row = sheet.getRow((int)(position >>> 32));
+                if(row != null) {
+                    return row.getCell((int) position);
+                }
+            }
+
+            // 重複した結合領域がある場合
+            index = findRegionIndex(rowIndex, columnIndex, index + 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * 指定した位置を含む結合領域のインデックスを取得する。
+     * @param rowIndex 行番号
+     * @param columnIndex 列番号
+     * @param fromIndex 検索を開始する結合領域のインデックス
+     * @return 見つからない場合は、-1を返す。
+     */
+    private int findRegionIndex(final int rowIndex, final int columnIndex, final int fromIndex) {
+
+        final int bucket = (rowIndex >> BUCKET_SHIFT) - firstBucket;
+        if(bucket < 0 || bucket >= buckets.length) {
+            return -1;
+        }
+
+        for(int index : buckets[bucket]) {
+            if(index >= fromIndex && regions[index].isInRange(rowIndex, columnIndex)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * 結合領域の中で値を持つセルの位置を走査する。
+     * @param sheet シート
+     * @param region 結合領域
+     * @return 値を持つセルがない場合は、{@link #NOT_FOUND}を返す。
+     */
+    private static long resolveValuePosition(final Sheet sheet, final CellRangeAddress region) {
+
+        // 非BLANKまたはnullでないセルを取得する。
+        for(int rowIdx=region.getFirstRow(); rowIdx <= region.getLastRow(); rowIdx++) {
+            final Row row = sheet.getRow(rowIdx);
+            if(row == null) {
+                continue;
+            }
+
+            for(int colIdx=region.getFirstColumn(); colIdx <= region.getLastColumn(); colIdx++) {
+                final Cell valueCell = row.getCell(colIdx);
+                if(valueCell == null || valueCell.getCellTypeEnum() == CellType.BLANK) {
+                    continue;
+                }
+
+                return ((long) rowIdx << 32) | colIdx;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.github.mygreen.cellformatter;
 
+import java.io.IOException;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
 /**
  * Javaのオブジェクト型を直接フォーマットするクラス。
  * <p>Excelの基本型である「文字列型」「ブール型」「数値型」「日付型」の4つをサポートします。</p>
+ * <p>日付型は、{@link Date}と{@link Calendar}に対応しています。</p>
  * <p>数値型については、Javaの{@link Number}を継承している標準クラスに対応しています。</p>
  * <ul>
  *  <li>プリミティブ型：byte/shrot/int/long/float/double</li>
@@ -30,6 +35,7 @@ import java.util.Locale;
  * </code></pre>
  * 
  * 
+ * @version 0.11
  * @since 0.6
  * @author T.TSUCHIE
  *
@@ -165,6 +171,147 @@ public class ObjectCellFormatter {
         return format(formatPattern, value, Locale.getDefault());
     }
     
+    /**
+     * プリミティブ型のdoubleの数値をフォーマットし、結果を直接文字列として取得する。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public String formatAsString(final String formatPattern, final double value) {
+        return formatAsString(formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、プリミティブ型のdoubleの数値をフォーマットし、結果を直接文字列として取得する。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public String formatAsString(final String formatPattern, final double value, final Locale locale) {
+        return getCellFormatter(formatPattern).formatAsString(value, getRuntimeLocale(locale));
+    }
+    
+    /**
+     * プリミティブ型のdoubleの数値をフォーマットする。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CellFormatResult format(final String formatPattern, final double value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、プリミティブ型のdoubleの数値をフォーマットする。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CellFormatResult format(final String formatPattern, final double value, final Locale locale) {
+        return getCellFormatter(formatPattern).format(value, getRuntimeLocale(locale));
+    }
+    
+    /**
+     * プリミティブ型のlongの数値をフォーマットし、結果を直接文字列として取得する。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public String formatAsString(final String formatPattern, final long value) {
+        return formatAsString(formatPattern, (double)value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、プリミティブ型のlongの数値をフォーマットし、結果を直接文字列として取得する。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public String formatAsString(final String formatPattern, final long value, final Locale locale) {
+        return formatAsString(formatPattern, (double)value, locale);
+    }
+    
+    /**
+     * プリミティブ型のlongの数値をフォーマットする。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CellFormatResult format(final String formatPattern, final long value) {
+        return format(formatPattern, (double)value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、プリミティブ型のlongの数値をフォーマットする。
+     * <p>値をラップするセルを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CellFormatResult format(final String formatPattern, final long value, final Locale locale) {
+        return format(formatPattern, (double)value, locale);
+    }
+    
+    /**
+     * プリミティブ型のdoubleの数値をフォーマットし、結果を出力先に追加する。
+     * <p>値をラップするセルや、フォーマット結果のオブジェクトを作成せずにフォーマットします。</p>
+     * @since 0.11
+     * @param out フォーマットした文字列の出力先。
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     * @throws IllegalArgumentException {@literal out == null.}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public void formatTo(final Appendable out, final String formatPattern, final double value) throws IOException {
+        formatTo(out, formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、プリミティブ型のdoubleの数値をフォーマットし、結果を出力先に追加する。
+     * <p>値をラップするセルや、フォーマット結果のオブジェクトを作成せずにフォーマットします。
+     *    数値の書式の場合は、フォーマットした文字列も作成せずに、各項を直接出力先に追加します。</p>
+     * @since 0.11
+     * @param out フォーマットした文字列の出力先。
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @throws IOException 出力先への書き込みに失敗した場合。
+     * @throws IllegalArgumentException {@literal out == null.}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public void formatTo(final Appendable out, final String formatPattern, final double value, final Locale locale) throws IOException {
+        ArgUtils.notNull(out, "out");
+        getCellFormatter(formatPattern).formatTo(value, getRuntimeLocale(locale), out);
+    }
+    
     /**
      * 日付型をフォーマットし、結果を直接文字列として取得する。
      * @param formatPattern フォーマットの書式。
@@ -205,6 +352,52 @@ public class ObjectCellFormatter {
         return format(formatPattern, value, Locale.getDefault());
     }
     
+    /**
+     * {@link Calendar}型の日時をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。カレンダーのタイムゾーンでの日時をフォーマットします。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final Calendar value) {
+        return format(formatPattern, value).getText();
+    }
+    
+    /**
+     * {@link Calendar}型の日時をフォーマットする。
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。カレンダーのタイムゾーンでの日時をフォーマットします。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final Calendar value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、{@link Calendar}型の日時をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。カレンダーのタイムゾーンでの日時をフォーマットします。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final Calendar value, final Locale locale) {
+        return format(formatPattern, value, locale).getText();
+    }
+    
+    /**
+     * ロケールを指定して、{@link Calendar}型の日時をフォーマットする。
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。カレンダーのタイムゾーンでの日時をフォーマットします。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final Calendar value, final Locale locale) {
+        return format(new CalendarCell(value, formatPattern), locale);
+    }
+    
     /**
      * セルの値を文字列として取得する。
      * @param cell Javaの仮想的なオブジェクトを表現するセル。
@@ -250,28 +443,85 @@ public class ObjectCellFormatter {
             return result;
         }
         
-        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        final Locale runtimeLocale = getRuntimeLocale(locale);
         
         final short formatIndex = cell.getFormatIndex();
         final String formatPattern = cell.getFormatPattern();
         
-        if(formatterResolver.canResolve(formatIndex)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatIndex);
-            return cellFormatter.format(cell, runtimeLocale);
-            
-        } else if(formatterResolver.canResolve(formatPattern)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatPattern);
-            return cellFormatter.format(cell, runtimeLocale);
-            
-        } else {
-            // キャッシュに存在しない場合
-            final CellFormatter cellFormatter = formatterResolver.createFormatter(formatPattern) ;
-            if(isCache()) {
-                formatterResolver.registerFormatter(formatPattern, cellFormatter);
-            }
-            return cellFormatter.format(cell, runtimeLocale);
-            
+        final CellFormatter cellFormatter = formatterResolver.resolveFormatter(formatIndex, formatPattern, isCache());
+        return cellFormatter.format(cell, runtimeLocale);
+    }
+    
+    /**
+     * 書式を解決し、値を直接フォーマットする{@link CompiledFormat}を取得する。
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @return 実行環境のロケールでフォーマットするインスタンス。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CompiledFormat compile(final String formatPattern) {
+        return compile(formatPattern, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して書式を解決し、値を直接フォーマットする{@link CompiledFormat}を取得する。
+     * @since 0.11
+     * @param formatPattern フォーマットの書式。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return 指定したロケールでフォーマットするインスタンス。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public CompiledFormat compile(final String formatPattern, final Locale locale) {
+        return new CompiledFormat(getCellFormatter(formatPattern), (short)-1, formatPattern, getRuntimeLocale(locale));
+    }
+    
+    /**
+     * 組み込み書式のインデックス番号から、値を直接フォーマットする{@link CompiledFormat}を取得する。
+     * @since 0.11
+     * @param formatIndex 書式のインデックス番号。
+     * @return 実行環境のロケールでフォーマットするインスタンス。
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException インデックス番号に対応する書式が登録されていない場合。
+     */
+    public CompiledFormat compile(final short formatIndex) {
+        return compile(formatIndex, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、組み込み書式のインデックス番号から、値を直接フォーマットする{@link CompiledFormat}を取得する。
+     * @since 0.11
+     * @param formatIndex 書式のインデックス番号。
+     * @param locale ロケール。書式にロケール条件の記述（例. {@code [$-403]}）が含まれている場合は、書式のロケールが優先されます。
+     * @return 指定したロケールでフォーマットするインスタンス。
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException インデックス番号に対応する書式が登録されていない場合。
+     */
+    public CompiledFormat compile(final short formatIndex, final Locale locale) {
+        ArgUtils.notMin(formatIndex, (short)0, "formatIndex");
+        
+        final CellFormatter cellFormatter = formatterResolver.getFormatter(formatIndex);
+        if(cellFormatter == null) {
+            throw new IllegalArgumentException(String.format("not found format for index : %d", formatIndex));
         }
+        
+        final Locale runtimeLocale = getRuntimeLocale(locale);
+        return new CompiledFormat(cellFormatter, formatIndex, cellFormatter.getPattern(runtimeLocale), runtimeLocale);
+    }
+    
+    /**
+     * 書式からフォーマッタを取得する。
+     * <p>キャッシュに存在しない場合は作成し、設定に従いキャッシュに登録する。
+     * @param formatPattern フォーマットの書式。
+     * @return 書式に対応するフォーマッタ。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    private CellFormatter getCellFormatter(final String formatPattern) {
+        ArgUtils.notEmpty(formatPattern, "formatPattern");
+        return formatterResolver.resolveFormatter((short)-1, formatPattern, isCache());
+    }
+    
+    private Locale getRuntimeLocale(final Locale locale) {
+        return locale != null ? locale : Locale.getDefault();
     }
     
     /**
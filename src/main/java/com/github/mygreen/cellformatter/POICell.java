@@ -1,40 +1,37 @@
 package com.github.mygreen.cellformatter;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Date;
 import java.util.TimeZone;
 
-import org.apache.poi.hssf.model.InternalWorkbook;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DataFormat;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellReference;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.POIUtils;
 
 
 /**
  * POIのセルのラッパークラス。
  *
- * @version 0.10
+ * @version 0.11
  * @since 0.4
  * @author T.TSUCHIE
  *
  */
 public class POICell implements CommonCell {
 
-    private static Logger logger = LoggerFactory.getLogger(POICell.class);
+    private Cell cell;
 
-    private final Cell cell;
+    /**
+     * 1904年始まりかどうか。まだ判定していない場合はnull。
+     */
+    private Boolean dateStart1904;
 
     /**
      * セルを渡してインスタンスを作成する。
+     * <p>1904年始まりかどうかは、初めて参照した際にワークブックから判定します。
      * @param cell フォーマット対象のセルのインスタンス。
      * @throws IllegalArgumentException {@literal cell == null.}
      */
@@ -43,6 +40,20 @@ public class POICell implements CommonCell {
         this.cell = cell;
     }
 
+    /**
+     * セルと1904年始まりかどうかを渡してインスタンスを作成する。
+     * @since 0.11
+     * @param cell フォーマット対象のセルのインスタンス。
+     * @param dateStart1904 1904年始まりかどうか。
+     *        {@link POIUtils#isDateStart1904(org.apache.poi.ss.usermodel.Workbook)}を使用して、ワークブックから取得する。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public POICell(final Cell cell, final boolean dateStart1904) {
+        ArgUtils.notNull(cell, "cell");
+        this.cell = cell;
+        this.dateStart1904 = dateStart1904;
+    }
+
     /**
      * POIの元々のセルのインスタンスを取得する。
      * @return
@@ -51,6 +62,17 @@ public class POICell implements CommonCell {
         return cell;
     }
 
+    /**
+     * ラップするセルを入れ替える。
+     * <p>行単位のフォーマットで、インスタンスを再利用するために使用します。
+     *    同じワークブックのセルに入れ替えるため、1904年始まりかどうかは引き継ぎます。</p>
+     * @since 0.11
+     * @param cell フォーマット対象のセルのインスタンス。
+     */
+    void setCell(final Cell cell) {
+        this.cell = cell;
+    }
+
     @Override
     public short getFormatIndex() {
         final short formatIndex = getCell().getCellStyle().getDataFormat();
@@ -109,47 +131,18 @@ public class POICell implements CommonCell {
         return new Date(date.getTime() + TimeZone.getDefault().getRawOffset());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>判定結果はインスタンスごとに保持します。
+     */
     @Override
     public boolean isDateStart1904() {
-
-        final Workbook workbook = cell.getSheet().getWorkbook();
-        if(workbook instanceof HSSFWorkbook) {
-            try {
-                Method method = HSSFWorkbook.class.getDeclaredMethod("getWorkbook");
-                method.setAccessible(true);
-
-                InternalWorkbook iw = (InternalWorkbook) method.invoke(workbook);
-                return iw.isUsing1904DateWindowing();
-
-            } catch(NoSuchMethodException | SecurityException e) {
-                logger.warn("fail access method HSSFWorkbook.getWorkbook.", e);
-                return false;
-            } catch(IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                logger.warn("fail invoke method HSSFWorkbook.getWorkbook.", e);
-                return false;
-            }
-
-        } else if(workbook instanceof XSSFWorkbook) {
-            try {
-                Method method = XSSFWorkbook.class.getDeclaredMethod("isDate1904");
-                method.setAccessible(true);
-
-                boolean value = (boolean) method.invoke(workbook);
-                return value;
-
-            } catch(NoSuchMethodException | SecurityException e) {
-                logger.warn("fail access method XSSFWorkbook.isDate1904.", e);
-                return false;
-            } catch(IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                logger.warn("fail invoke method XSSFWorkbook.isDate1904.", e);
-                return false;
-            }
-
-        } else {
-            logger.warn("unknown workbook type.", workbook.getClass().getName());
+        Boolean value = dateStart1904;
+        if(value == null) {
+            value = POIUtils.isDateStart1904(cell.getSheet().getWorkbook());
+            dateStart1904 = value;
         }
-
-        return false;
+        return value;
     }
 
     @Override
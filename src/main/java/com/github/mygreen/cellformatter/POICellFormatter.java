@@ -1,17 +1,23 @@
 package com.github.mygreen.cellformatter;
 
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
 import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
-import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddress;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.POIUtils;
 
 
 /**
@@ -48,16 +54,25 @@ import org.apache.poi.ss.util.CellRangeAddress;
  *   <li>Cellのインスタンスがnullの場合、空（Blank）セルとして扱います。
  *       <br>POIの場合、データの入力がない領域のセルは、nullとなるためです。</li>
  *   <li>結合されたセルの場合、結合領域を走査し、非空セルがそのセルの値を評価します。
- *       <br>POIの場合、結合されたセルの領域は、基本的に左上のセルに値が設定され、それ以外のセルは空セルとなるためです。</li>
+ *       <br>POIの場合、結合されたセルの領域は、基本的に左上のセルに値が設定され、それ以外のセルは空セルとなるためです。
+ *       <br>結合領域はシートごとに索引を作成してキャッシュするため、結合領域を変更した場合は、{@link #clearMergedRegionCache(Sheet)}を呼びます。</li>
  *   <li>数式や関数が設定されたセルの場合、それらを評価した結果を返します。
  *       <br>POIが対応していない数式や関数の場合、Excel上では正しく表示されていても、エラーセルの扱いとなります。
  *       <br>使用するPOIのバージョンによって対応する関数も異なります。</li>
+ *   <li>{@link #setReuseFormulaEvaluator(boolean)}で、数式を評価するインスタンスをワークブックとスレッドごとに再利用し、
+ *       評価結果をキャッシュすることもできます。
+ *       <br>セルの値を変更した場合は、{@link #notifyUpdateCell(Cell)}または{@link #clearEvaluationCache(Workbook)}を呼びます。
+ *       <br>再利用するインスタンスはワークブックを参照しているため、ワークブックのフォーマットが終わったら、
+ *       {@link #releaseFormulaEvaluator(Workbook)}を呼び破棄します。</li>
+ *   <li>大量のセルをフォーマットする場合は、{@link #formatRow(Row, int, int, CellFormatResult[])}で行単位にフォーマットすると、
+ *       セルごとのオブジェクトの生成を抑えられます。</li>
+ *   <li>{@link #setUseCachedFormulaResult(boolean)}で、数式を評価せずにファイルに保存されている計算結果を利用することもできます。</li>
  * </ul>
  *
  * @see <a href="http://www.ne.jp/asahi/hishidama/home/tech/apache/poi/cell.html" target="_blank">ひしだま's 技術メモページ - Apache POI Cell : Cellの値の取得</a>
  * @see <a href="http://shin-kawara.seesaa.net/article/159663314.html" target="_blank">POIでセルの値をとるのは大変　日付編</a>
  *
- * @version 0.8.3
+ * @version 0.11
  * @author T.TSUCHIE
  *
  */
@@ -65,6 +80,31 @@ public class POICellFormatter {
 
     private FormatterResolver formatterResolver = new FormatterResolver();
 
+    /**
+     * 数式を評価する{@link FormulaEvaluator}の保持クラス。
+     */
+    private FormulaEvaluatorRegistry formulaEvaluatorRegistry = new FormulaEvaluatorRegistry();
+
+    /**
+     * シートごとの結合領域の索引
+     */
+    private final Map<Sheet, MergedRegionIndex> mergedRegionIndexMap = new WeakHashMap<>();
+
+    /**
+     * 直前に利用したシートの結合領域の索引
+     */
+    private volatile SheetMergedRegionIndex lastMergedRegionIndex;
+
+    /**
+     * ワークブックごとのスタイルとフォーマッタの表
+     */
+    private final Map<Workbook, StyleFormatterTable> styleFormatterTableMap = new WeakHashMap<>();
+
+    /**
+     * 直前に利用したスタイルとフォーマッタの表
+     */
+    private volatile StyleFormatterTable lastStyleFormatterTable;
+
     /**
      * パースしたフォーマッタをキャッシングするかどうか。
      */
@@ -85,6 +125,16 @@ public class POICellFormatter {
      */
     private boolean considerMergedCell = true;
 
+    /**
+     * 数式のセルの場合、保存されている計算結果を利用するかどうか。
+     */
+    private boolean useCachedFormulaResult = false;
+
+    /**
+     * 数式を評価するインスタンスを、ワークブックとスレッドごとに再利用するかどうか。
+     */
+    private boolean reuseFormulaEvaluator = false;
+
     /**
      * セルの値を文字列として取得する
      * @param cell 取得対象のセル
@@ -125,6 +175,19 @@ public class POICellFormatter {
      * @return フォーマット結果。cellがnullの場合、空セルとして値を返す。
      */
     public CellFormatResult format(final Cell cell, final Locale locale) {
+        return format(cell, locale, null);
+    }
+
+    /**
+     * ロケールと結合領域の索引を指定してセルの値を取得する。
+     * <p>シートや行の単位でまとめてフォーマットする際に、索引を1度だけ取得して渡します。
+     * @since 0.11
+     * @param cell フォーマット対象のセル
+     * @param locale locale フォーマットしたロケール。nullでも可能。
+     * @param mergedRegionIndex セルのシートの結合領域の索引。nullの場合は、必要なときに取得する。
+     * @return フォーマット結果。cellがnullの場合、空セルとして値を返す。
+     */
+    CellFormatResult format(final Cell cell, final Locale locale, final MergedRegionIndex mergedRegionIndex) {
 
         if(cell == null) {
             return createBlankCellResult();
@@ -136,7 +199,7 @@ public class POICellFormatter {
             case BLANK:
                 if(isConsiderMergedCell()) {
                     // 結合しているセルの場合、左上のセル以外に値が設定されている場合がある。
-                    return getMergedCellValue(cell, runtimeLocale);
+                    return getMergedCellValue(cell, runtimeLocale, mergedRegionIndex);
                 } else {
                     return createBlankCellResult();
                 }
@@ -164,6 +227,93 @@ public class POICellFormatter {
         }
     }
 
+    /**
+     * 行の指定した範囲のセルをフォーマットし、結果を配列に格納する。
+     * @since 0.11
+     * @param row フォーマット対象の行。nullの場合は、全て空セルとして扱う。
+     * @param firstColumn フォーマットする最初の列番号(0から始まる)。
+     * @param lastColumn フォーマットする最後の列番号(0から始まる)。
+     * @param reuse 結果を格納する配列。nullまたは長さが足りない場合は、新たに作成する。
+     * @return フォーマット結果を格納した配列。添え字{@literal i}に列番号{@literal firstColumn + i}の結果を格納する。
+     * @throws IllegalArgumentException {@literal firstColumn < 0 or lastColumn < firstColumn.}
+     */
+    public CellFormatResult[] formatRow(final Row row, final int firstColumn, final int lastColumn, final CellFormatResult[] reuse) {
+        return formatRow(row, firstColumn, lastColumn, Locale.getDefault(), reuse);
+    }
+
+    /**
+     * ロケールを指定して、行の指定した範囲のセルをフォーマットし、結果を配列に格納する。
+     * <p>値を持つセルは、行の中で1つのラッパーを使い回し、同じスタイルが連続するセルはフォーマッタの解決を省略します。
+     * <p>配列の要素が空セルの結果の場合は、そのインスタンスを再利用します。
+     * @since 0.11
+     * @param row フォーマット対象の行。nullの場合は、全て空セルとして扱う。
+     * @param firstColumn フォーマットする最初の列番号(0から始まる)。
+     * @param lastColumn フォーマットする最後の列番号(0から始まる)。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param reuse 結果を格納する配列。nullまたは長さが足りない場合は、新たに作成する。
+     * @return フォーマット結果を格納した配列。添え字{@literal i}に列番号{@literal firstColumn + i}の結果を格納する。
+     * @throws IllegalArgumentException {@literal firstColumn < 0 or lastColumn < firstColumn.}
+     */
+    public CellFormatResult[] formatRow(final Row row, final int firstColumn, final int lastColumn, final Locale locale,
+            final CellFormatResult[] reuse) {
+
+        ArgUtils.notMin(firstColumn, 0, "firstColumn");
+        ArgUtils.notMin(lastColumn, firstColumn, "lastColumn");
+
+        final int size = lastColumn - firstColumn + 1;
+        final CellFormatResult[] results = (reuse != null && reuse.length >= size) ? reuse : new CellFormatResult[size];
+        final RowFormatContext context = new RowFormatContext(row, locale);
+
+        for(int i=0; i < size; i++) {
+            results[i] = context.format(firstColumn + i, results[i]);
+        }
+
+        return results;
+    }
+
+    /**
+     * ロケールを指定して、行の指定した列のセルのみをフォーマットし、結果を配列に格納する。
+     * <p>指定していない列のセルは、スタイルの参照や数式の評価、結合領域の検索を一切行いません。
+     * @since 0.11
+     * @param row フォーマット対象の行。nullの場合は、全て空セルとして扱う。
+     * @param columns フォーマットする列番号(0から始まる)の集合。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param reuse 結果を格納する配列。nullまたは長さが足りない場合は、新たに作成する。
+     * @return フォーマット結果を格納した配列。列番号の小さい順に格納する。
+     * @throws IllegalArgumentException {@literal columns == null.}
+     */
+    public CellFormatResult[] formatRow(final Row row, final BitSet columns, final Locale locale, final CellFormatResult[] reuse) {
+        ArgUtils.notNull(columns, "columns");
+
+        final int size = columns.cardinality();
+        final CellFormatResult[] results = (reuse != null && reuse.length >= size) ? reuse : new CellFormatResult[size];
+        final RowFormatContext context = new RowFormatContext(row, locale);
+
+        int i = 0;
+        for(int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+            results[i] = context.format(column, results[i]);
+            i++;
+        }
+
+        return results;
+    }
+
+    /**
+     * ブランクセルの結果を、インスタンスを再利用して作成する。
+     * @since 0.11
+     * @param result 再利用するインスタンス。空セル以外の結果、またはnullの場合は新たに作成する。
+     * @return ブランクセルの結果
+     */
+    private CellFormatResult reuseBlankCellResult(final CellFormatResult result) {
+        if(result != null && result.isBlank()) {
+            result.setText("");
+            return result;
+        }
+        return createBlankCellResult();
+    }
+
     /**
      * ブランクセルの結果を作成する。
      * @since 0.7
@@ -187,34 +337,17 @@ public class POICellFormatter {
         final CellType cellType = cell.getCellTypeEnum();
         assert cellType == CellType.FORMULA;
 
+        if(isUseCachedFormulaResult() && POIUtils.hasCachedFormulaResult(cell)) {
+            return getEvaluatedCellValue(cell, getCachedFormulaResult(cell), locale);
+        }
+
         final Workbook workbook = cell.getSheet().getWorkbook();
-        final CreationHelper helper = workbook.getCreationHelper();
-        final FormulaEvaluator evaluator = helper.createFormulaEvaluator();
+        final FormulaEvaluator evaluator = isReuseFormulaEvaluator() ?
+                formulaEvaluatorRegistry.getFormulaEvaluator(workbook) : workbook.getCreationHelper().createFormulaEvaluator();
 
         try {
             final CellValue value = evaluator.evaluate(cell);
-            final POIEvaluatedCell evaluatedCell = new POIEvaluatedCell(cell, value);
-
-            switch(value.getCellTypeEnum()) {
-
-                case BOOLEAN:
-                    return getCellValue(evaluatedCell, locale);
-
-                case STRING:
-                    return getCellValue(evaluatedCell, locale);
-
-                case NUMERIC:
-                    return getCellValue(evaluatedCell, locale);
-
-                case ERROR:
-                    return getErrorCellValue(value.getErrorValue(), locale);
-
-                default:
-                    final CellFormatResult result = new CellFormatResult();
-                    result.setCellType(FormatCellType.Unknown);
-                    result.setText("");
-                    return result;
-            }
+            return getEvaluatedCellValue(cell, value, locale);
 
         } catch(Exception e) {
             if(isThrowFailEvaluateFormula()) {
@@ -226,6 +359,67 @@ public class POICellFormatter {
 
     }
 
+    /**
+     * 数式のセルに保存されている計算結果を取得する。
+     * @since 0.11
+     * @param cell 数式のセル
+     * @return 計算結果の値
+     */
+    private CellValue getCachedFormulaResult(final Cell cell) {
+
+        switch(cell.getCachedFormulaResultTypeEnum()) {
+            case NUMERIC:
+                return new CellValue(cell.getNumericCellValue());
+
+            case STRING:
+                return new CellValue(cell.getStringCellValue());
+
+            case BOOLEAN:
+                return CellValue.valueOf(cell.getBooleanCellValue());
+
+            case ERROR:
+                return CellValue.getError(cell.getErrorCellValue());
+
+            default:
+                return new CellValue("");
+        }
+    }
+
+    /**
+     * 数式の計算結果をフォーマットする。
+     * @since 0.11
+     * @param cell 数式のセル
+     * @param value 計算結果の値
+     * @param locale ロケール
+     * @return フォーマットした結果
+     */
+    private CellFormatResult getEvaluatedCellValue(final Cell cell, final CellValue value, final Locale locale) {
+
+        final POIEvaluatedCell evaluatedCell = new POIEvaluatedCell(cell, value);
+
+        switch(value.getCellTypeEnum()) {
+
+            case BOOLEAN:
+                return getCellValue(evaluatedCell, locale);
+
+            case STRING:
+                return getCellValue(evaluatedCell, locale);
+
+            case NUMERIC:
+                return getCellValue(evaluatedCell, locale);
+
+            case ERROR:
+                return getErrorCellValue(value.getErrorValue(), locale);
+
+            default:
+                final CellFormatResult result = new CellFormatResult();
+                result.setCellType(FormatCellType.Unknown);
+                result.setText("");
+                return result;
+        }
+
+    }
+
 
     /**
      * エラーセルの値を評価する。
@@ -271,39 +465,47 @@ public class POICellFormatter {
      * <p>左上以外のセルに値が設定されている場合は、CellTypeがCELL_TYPE_BLANKになるため注意が必要。
      * @param cell
      * @param locale
+     * @param mergedRegionIndex 結合領域の索引。nullの場合はキャッシュから取得する。
      * @return
      */
-    private CellFormatResult getMergedCellValue(final Cell cell, final Locale locale) {
+    private CellFormatResult getMergedCellValue(final Cell cell, final Locale locale, final MergedRegionIndex mergedRegionIndex) {
 
         final Sheet sheet = cell.getSheet();
-        final int size = sheet.getNumMergedRegions();
+        final MergedRegionIndex index = (mergedRegionIndex != null ? mergedRegionIndex : getMergedRegionIndex(sheet));
 
-        for(int i=0; i < size; i++) {
-            final CellRangeAddress range = sheet.getMergedRegion(i);
-            if(!range.isInRange(cell.getRowIndex(), cell.getColumnIndex())) {
-                continue;
-            }
+        final Cell valueCell = index.findValueCell(sheet, cell.getRowIndex(), cell.getColumnIndex());
+        if(valueCell == null) {
+            return createBlankCellResult();
+        }
 
-            // 非BLANKまたはnullでないセルを取得する。
-            for(int rowIdx=range.getFirstRow(); rowIdx <= range.getLastRow(); rowIdx++) {
-                final Row row = sheet.getRow(rowIdx);
-                if(row == null) {
-                    continue;
-                }
+        return format(valueCell, locale);
+    }
 
-                for(int colIdx=range.getFirstColumn(); colIdx <= range.getLastColumn(); colIdx++) {
-                    final Cell valueCell = row.getCell(colIdx);
-                    if(valueCell == null || valueCell.getCellTypeEnum() == CellType.BLANK) {
-                        continue;
-                    }
+    /**
+     * シートの結合領域の索引を取得する。
+     * <p>直前に利用したシートと同じ場合は、ロックを取得せずに返す。
+     * <p>キャッシュに存在しない場合は、作成して登録する。
+     * @param sheet シート
+     * @return 結合領域の索引
+     */
+    MergedRegionIndex getMergedRegionIndex(final Sheet sheet) {
 
-                    return format(valueCell, locale);
-                }
+        final SheetMergedRegionIndex last = lastMergedRegionIndex;
+        if(last != null && last.isIndexOf(sheet)) {
+            return last.getIndex();
+        }
+
+        synchronized(mergedRegionIndexMap) {
+            MergedRegionIndex mergedRegionIndex = mergedRegionIndexMap.get(sheet);
+            if(mergedRegionIndex == null) {
+                mergedRegionIndex = MergedRegionIndex.create(sheet);
+                mergedRegionIndexMap.put(sheet, mergedRegionIndex);
             }
 
+            // 破棄と競合しないよう、ロック内で更新する
+            lastMergedRegionIndex = new SheetMergedRegionIndex(sheet, mergedRegionIndex);
+            return mergedRegionIndex;
         }
-
-        return createBlankCellResult();
     }
 
     /**
@@ -324,25 +526,130 @@ public class POICellFormatter {
      */
     private CellFormatResult getCellValue(final POICell poiCell, final Locale locale) {
 
+        final CellFormatter cellFormatter = getCellFormatter(poiCell);
+        return cellFormatter.format(poiCell, locale);
+    }
+
+    /**
+     * セルに対するフォーマッタを取得する。
+     * <p>キャッシュが有効な場合、解決したフォーマッタをセルのスタイルのインデックスごとに保持し、
+     *    2回目以降はスタイルのインデックスから直接取得する。
+     * @param poiCell フォーマット対象のセル
+     * @return フォーマッタ
+     */
+    private CellFormatter getCellFormatter(final POICell poiCell) {
+
+        if(!isCache()) {
+            return resolveCellFormatter(poiCell);
+        }
+
+        final Cell cell = poiCell.getCell();
+        final int styleIndex = cell.getCellStyle().getIndex() & 0xFFFF;
+        final StyleFormatterTable table = getStyleFormatterTable(cell.getSheet().getWorkbook());
+
+        CellFormatter cellFormatter = table.get(styleIndex);
+        if(cellFormatter == null) {
+            cellFormatter = resolveCellFormatter(poiCell);
+            table.set(styleIndex, cellFormatter);
+        }
+
+        return cellFormatter;
+    }
+
+    /**
+     * 書式のインデックスとパターンから、セルに対するフォーマッタを解決する。
+     * @param poiCell フォーマット対象のセル
+     * @return フォーマッタ
+     */
+    private CellFormatter resolveCellFormatter(final POICell poiCell) {
+
         final short formatIndex = poiCell.getFormatIndex();
         final String formatPattern = poiCell.getFormatPattern();
+        return formatterResolver.resolveFormatter(formatIndex, formatPattern, isCache());
+    }
 
-        if(formatterResolver.canResolve(formatIndex)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatIndex);
-            return cellFormatter.format(poiCell, locale);
+    /**
+     * ワークブックに対するスタイルとフォーマッタの表を取得する。
+     * <p>キャッシュに存在しない場合は、作成して登録する。
+     * @param workbook ワークブック
+     * @return スタイルとフォーマッタの表
+     */
+    private StyleFormatterTable getStyleFormatterTable(final Workbook workbook) {
 
-        } else if(formatterResolver.canResolve(formatPattern)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatPattern);
-            return cellFormatter.format(poiCell, locale);
+        StyleFormatterTable table = lastStyleFormatterTable;
+        if(table != null && table.isTableOf(workbook)) {
+            return table;
+        }
 
-        } else {
-            // キャッシュに存在しない場合
-            final CellFormatter cellFormatter = formatterResolver.createFormatter(formatPattern) ;
-            if(isCache()) {
-                formatterResolver.registerFormatter(formatPattern, cellFormatter);
+        synchronized(styleFormatterTableMap) {
+            table = styleFormatterTableMap.get(workbook);
+            if(table == null) {
+                table = new StyleFormatterTable(workbook);
+                styleFormatterTableMap.put(workbook, table);
             }
-            return cellFormatter.format(poiCell, locale);
+        }
 
+        lastStyleFormatterTable = table;
+        return table;
+    }
+
+    /**
+     * スタイルごとに解決したフォーマッタのキャッシュを破棄する。
+     * <p>セルのスタイルの書式を変更した場合や、{@link FormatterResolver}に登録したフォーマッタを変更した場合に呼びます。
+     * @since 0.11
+     */
+    public void clearStyleFormatterCache() {
+        synchronized(styleFormatterTableMap) {
+            styleFormatterTableMap.clear();
+            lastStyleFormatterTable = null;
+        }
+    }
+
+    /**
+     * ワークブックに対する数式の評価結果のキャッシュを破棄する。
+     * <p>ワークブックの複数のセルの値を変更した後に呼びます。
+     * @since 0.11
+     * @param workbook 対象のワークブック。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public void clearEvaluationCache(final Workbook workbook) {
+        formulaEvaluatorRegistry.clearEvaluationCache(workbook);
+    }
+
+    /**
+     * セルの値を変更したことを通知し、そのセルに依存する数式の評価結果のキャッシュを破棄する。
+     * @since 0.11
+     * @param cell 値を変更したセル。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public void notifyUpdateCell(final Cell cell) {
+        formulaEvaluatorRegistry.notifyUpdateCell(cell);
+    }
+
+    /**
+     * ワークブックに対する数式を評価するインスタンスを破棄する。
+     * <p>数式を評価するインスタンスはワークブックを参照しているため、ワークブックのフォーマットが終わった後に呼びます。
+     * @since 0.11
+     * @param workbook 対象のワークブック。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public void releaseFormulaEvaluator(final Workbook workbook) {
+        formulaEvaluatorRegistry.release(workbook);
+    }
+
+    /**
+     * シートの結合領域の索引のキャッシュを破棄する。
+     * <p>シートの結合領域や、結合領域内のセルの値を変更した後に呼びます。
+     * @since 0.11
+     * @param sheet 対象のシート。
+     * @throws IllegalArgumentException {@literal sheet == null.}
+     */
+    public void clearMergedRegionCache(final Sheet sheet) {
+        ArgUtils.notNull(sheet, "sheet");
+
+        synchronized(mergedRegionIndexMap) {
+            mergedRegionIndexMap.remove(sheet);
+            lastMergedRegionIndex = null;
         }
     }
 
@@ -361,6 +668,26 @@ public class POICellFormatter {
      */
     public void setFormatterResolver(FormatterResolver formatterResolver) {
         this.formatterResolver = formatterResolver;
+        clearStyleFormatterCache();
+    }
+
+    /**
+     * 数式を評価する{@link FormulaEvaluator}の保持クラスを取得する。
+     * @since 0.11
+     * @return
+     */
+    public FormulaEvaluatorRegistry getFormulaEvaluatorRegistry() {
+        return formulaEvaluatorRegistry;
+    }
+
+    /**
+     * 数式を評価する{@link FormulaEvaluator}の保持クラスを設定する。
+     * <p>複数のインスタンス間で評価結果のキャッシュを共有する際に利用します。
+     * @since 0.11
+     * @param formulaEvaluatorRegistry
+     */
+    public void setFormulaEvaluatorRegistry(FormulaEvaluatorRegistry formulaEvaluatorRegistry) {
+        this.formulaEvaluatorRegistry = formulaEvaluatorRegistry;
     }
 
     /**
@@ -378,6 +705,7 @@ public class POICellFormatter {
      */
     public void setCache(boolean cache) {
         this.cache = cache;
+        clearStyleFormatterCache();
     }
 
     /**
@@ -439,4 +767,247 @@ public class POICellFormatter {
         this.considerMergedCell = considerMergedCell;
     }
 
+    /**
+     * 数式のセルの場合、数式を評価せずに、ファイルに保存されている計算結果の値を利用するかどうか。
+     * <p>初期値はfalseで、常に数式を評価します。
+     * <p>trueの場合でも、計算結果の値が保存されていない場合は、数式を評価します。
+     * @since 0.11
+     * @return true: 保存されている計算結果を利用する。
+     */
+    public boolean isUseCachedFormulaResult() {
+        return useCachedFormulaResult;
+    }
+
+    /**
+     * 数式のセルの場合、数式を評価せずに、ファイルに保存されている計算結果の値を利用するかどうか設定する。
+     * <p>Excelで保存したファイルのように計算結果が正しく保存されている場合、数式の評価を省略できます。
+     *    また、外部参照など、POIで評価できない数式の場合でも値を取得できます。
+     * @since 0.11
+     * @param useCachedFormulaResult true: 保存されている計算結果を利用する。
+     */
+    public void setUseCachedFormulaResult(boolean useCachedFormulaResult) {
+        this.useCachedFormulaResult = useCachedFormulaResult;
+    }
+
+    /**
+     * 数式を評価する{@link FormulaEvaluator}を、ワークブックとスレッドごとに再利用するかどうか。
+     * <p>初期値はfalseで、数式のセルごとにインスタンスを作成し、ワークブックを保持しません。
+     * @since 0.11
+     * @return true: インスタンスを再利用する。
+     */
+    public boolean isReuseFormulaEvaluator() {
+        return reuseFormulaEvaluator;
+    }
+
+    /**
+     * 数式を評価する{@link FormulaEvaluator}を、ワークブックとスレッドごとに再利用するかどうか設定する。
+     * <p>再利用する場合、参照先のセルの評価結果がキャッシュされるため、同じワークブックの数式を繰り返し評価する際に処理を省略できます。
+     *    ただし、インスタンスはワークブックを参照しているため、{@link #releaseFormulaEvaluator(Workbook)}を呼ぶまでワークブックを保持し続けます。
+     * @since 0.11
+     * @param reuseFormulaEvaluator true: インスタンスを再利用する。
+     */
+    public void setReuseFormulaEvaluator(boolean reuseFormulaEvaluator) {
+        this.reuseFormulaEvaluator = reuseFormulaEvaluator;
+    }
+
+    /**
+     * 行単位でフォーマットする際の状態。
+     * <p>セルのラッパーと、直前に解決したスタイルのフォーマッタを保持する。
+     *
+     * @since 0.11
+     */
+    private final class RowFormatContext {
+
+        private final Row row;
+
+        private final Locale locale;
+
+        private final StyleFormatterTable table;
+
+        private final boolean dateStart1904;
+
+        private POICell poiCell;
+
+        private int lastStyleIndex = -1;
+
+        private CellFormatter lastFormatter;
+
+        private MergedRegionIndex mergedRegionIndex;
+
+        private RowFormatContext(final Row row, final Locale locale) {
+            this.row = row;
+            this.locale = locale != null ? locale : Locale.getDefault();
+            this.table = (row != null && isCache()) ? getStyleFormatterTable(row.getSheet().getWorkbook()) : null;
+
+            if(table != null) {
+                this.dateStart1904 = table.isDateStart1904();
+            } else {
+                this.dateStart1904 = (row != null && POIUtils.isDateStart1904(row.getSheet().getWorkbook()));
+            }
+        }
+
+        /**
+         * 列番号を指定してセルをフォーマットする。
+         * @param columnIndex 列番号
+         * @param previous 前回の結果。空セルの場合に再利用する。
+         * @return フォーマットした結果
+         */
+        private CellFormatResult format(final int columnIndex, final CellFormatResult previous) {
+
+            final Cell cell = (row != null ? row.getCell(columnIndex) : null);
+            if(cell == null) {
+                return reuseBlankCellResult(previous);
+            }
+
+            switch(cell.getCellTypeEnum()) {
+                case BOOLEAN:
+                case STRING:
+                case NUMERIC:
+                    if(poiCell == null) {
+                        poiCell = new POICell(cell, dateStart1904);
+                    } else {
+                        poiCell.setCell(cell);
+                    }
+
+                    final int styleIndex = cell.getCellStyle().getIndex() & 0xFFFF;
+                    if(styleIndex != lastStyleIndex || lastFormatter == null) {
+                        lastFormatter = (table != null ? table.get(styleIndex) : null);
+                        if(lastFormatter == null) {
+                            lastFormatter = getCellFormatter(poiCell);
+                        }
+                        lastStyleIndex = styleIndex;
+                    }
+
+                    return lastFormatter.format(poiCell, locale);
+
+                case BLANK:
+                    if(!isConsiderMergedCell()) {
+                        return reuseBlankCellResult(previous);
+                    }
+
+                    // 結合領域の索引は、行の中で1度だけ取得する
+                    if(mergedRegionIndex == null) {
+                        mergedRegionIndex = getMergedRegionIndex(row.getSheet());
+                    }
+                    return POICellFormatter.this.format(cell, locale, mergedRegionIndex);
+
+                default:
+                    return POICellFormatter.this.format(cell, locale, mergedRegionIndex);
+            }
+        }
+
+    }
+
+    /**
+     * シートと、その結合領域の索引の組。
+     * <p>直前に利用したシートの索引を、ロックを取得せずに参照するために利用する。
+     *
+     * @since 0.11
+     */
+    private static final class SheetMergedRegionIndex {
+
+        private final WeakReference<Sheet> sheet;
+
+        private final MergedRegionIndex index;
+
+        private SheetMergedRegionIndex(final Sheet sheet, final MergedRegionIndex index) {
+            this.sheet = new WeakReference<>(sheet);
+            this.index = index;
+        }
+
+        /**
+         * 指定したシートの索引かどうか。
+         * @param sheet シート
+         * @return true:指定したシートの索引の場合。
+         */
+        private boolean isIndexOf(final Sheet sheet) {
+            return this.sheet.get() == sheet;
+        }
+
+        private MergedRegionIndex getIndex() {
+            return index;
+        }
+
+    }
+
+    /**
+     * ワークブックのスタイルのインデックスと、解決したフォーマッタの表。
+     * <p>スタイルのインデックスを添え字とした配列で保持し、初回の参照時に値を設定する。
+     *
+     * @since 0.11
+     */
+    private static final class StyleFormatterTable {
+
+        /**
+         * 対象のワークブック
+         */
+        private final WeakReference<Workbook> workbook;
+
+        /**
+         * スタイルのインデックスごとのフォーマッタ
+         */
+        private volatile AtomicReferenceArray<CellFormatter> formatters;
+
+        /**
+         * ワークブックが1904年始まりかどうか
+         */
+        private final boolean dateStart1904;
+
+        private StyleFormatterTable(final Workbook workbook) {
+            this.workbook = new WeakReference<>(workbook);
+            this.formatters = new AtomicReferenceArray<>(Math.max(workbook.getNumCellStyles(), 1));
+            this.dateStart1904 = POIUtils.isDateStart1904(workbook);
+        }
+
+        /**
+         * ワークブックが1904年始まりかどうか。
+         * @return true:1904年始まりの場合。
+         */
+        private boolean isDateStart1904() {
+            return dateStart1904;
+        }
+
+        /**
+         * 指定したワークブックの表かどうか。
+         * @param workbook ワークブック
+         * @return true:指定したワークブックの表の場合。
+         */
+        private boolean isTableOf(final Workbook workbook) {
+            return this.workbook.get() == workbook;
+        }
+
+        /**
+         * スタイルのインデックスに対するフォーマッタを取得する。
+         * @param styleIndex スタイルのインデックス
+         * @return 登録されていない場合は、nullを返す。
+         */
+        private CellFormatter get(final int styleIndex) {
+            final AtomicReferenceArray<CellFormatter> array = formatters;
+            return styleIndex < array.length() ? array.get(styleIndex) : null;
+        }
+
+        /**
+         * スタイルのインデックスに対するフォーマッタを設定する。
+         * <p>スタイルが追加され、インデックスが範囲外の場合は表を拡張する。
+         * @param styleIndex スタイルのインデックス
+         * @param formatter フォーマッタ
+         */
+        private synchronized void set(final int styleIndex, final CellFormatter formatter) {
+
+            AtomicReferenceArray<CellFormatter> array = formatters;
+            if(styleIndex >= array.length()) {
+                final AtomicReferenceArray<CellFormatter> newArray =
+                        new AtomicReferenceArray<>(Math.max(styleIndex + 1, array.length() * 2));
+                for(int i=0; i < array.length(); i++) {
+                    newArray.set(i, array.get(i));
+                }
+                formatters = newArray;
+                array = newArray;
+            }
+
+            array.set(styleIndex, formatter);
+        }
+
+    }
+
 }
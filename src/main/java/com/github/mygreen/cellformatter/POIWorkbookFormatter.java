@@ -0,0 +1,320 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * Apache POIのワークブックの全てのシートを、並列にフォーマットするクラス。
+ * <p>シートごとにタスクを作成し、{@link ForkJoinPool}で並列に処理します。
+ *    結果はシート、行、列の順に並んだ状態で返します。
+ *
+ * <h3 class="description">基本的な使い方</h3>
+ * <pre class="highlight"><code class="java">
+ * POIWorkbookFormatter workbookFormatter = new POIWorkbookFormatter(new ForkJoinPool(4));
+ *
+ * Workbook workbook = // ワークブックの取得
+ * List&lt;SheetFormatResult&gt; results = workbookFormatter.format(workbook, Locale.JAPANESE);
+ * for(SheetFormatResult result : results) {
+ *     long time = result.getElapsedTime(TimeUnit.MILLISECONDS); // シートごとの処理時間
+ * }
+ * </code></pre>
+ *
+ * <h3 class="description">注意事項</h3>
+ * <ul>
+ *   <li>各シートのセルは、{@link POICellFormatter}でフォーマットします。
+ *       <br>初期状態のフォーマッタは、数式の評価に利用する{@link org.apache.poi.ss.usermodel.FormulaEvaluator}を
+ *       スレッドごとに再利用します({@link POICellFormatter#setReuseFormulaEvaluator(boolean)})。スレッド間では共有されません。
+ *       <br>{@link FormatterResolver}に登録されたフォーマッタは、全てのスレッドで共有します。</li>
+ *   <li>フォーマットが終わると、ワークブックに対する{@link org.apache.poi.ss.usermodel.FormulaEvaluator}を破棄します。</li>
+ *   <li>複数のシートを、1つのワークブックのインスタンスから同時に読み込みます。
+ *       <br>POIは、読み込みのみの場合でもスレッドセーフであることを保証していません。
+ *       xlsファイル(HSSF)のスタイルや書式のオブジェクトは参照時に作成され、共有文字列やスタイルの表は全てのシートで共有されます。
+ *       <br>そのため、並列の読み込みはPOIの内部実装に依存します。
+ *       POIのバージョンを変更して結果が異なる場合は、並列数が1のプールを指定して処理してください。</li>
+ *   <li>フォーマット中にワークブックを変更しないでください。</li>
+ * </ul>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class POIWorkbookFormatter {
+
+    private POICellFormatter cellFormatter = createDefaultCellFormatter();
+
+    /**
+     * 並列処理に利用するプール。
+     */
+    private ForkJoinPool forkJoinPool;
+
+    /**
+     * フォーマット対象の列番号の集合。nullの場合は全ての列。
+     */
+    private BitSet columnProjection;
+
+    /**
+     * 呼び出しごとにプールを作成するインスタンスを作成する。
+     */
+    public POIWorkbookFormatter() {
+
+    }
+
+    /**
+     * 並列処理に利用するプールを指定してインスタンスを作成する。
+     * @param forkJoinPool 並列処理に利用するプール。
+     * @throws IllegalArgumentException {@literal forkJoinPool == null.}
+     */
+    public POIWorkbookFormatter(final ForkJoinPool forkJoinPool) {
+        ArgUtils.notNull(forkJoinPool, "forkJoinPool");
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * 初期状態のフォーマッタを作成する。
+     * <p>フォーマットが終わると破棄するため、数式を評価するインスタンスをスレッドごとに再利用する。
+     * @return フォーマッタ
+     */
+    private static POICellFormatter createDefaultCellFormatter() {
+        final POICellFormatter formatter = new POICellFormatter();
+        formatter.setReuseFormulaEvaluator(true);
+        return formatter;
+    }
+
+    /**
+     * ワークブックの全てのシートをフォーマットする。
+     * @param workbook フォーマット対象のワークブック。
+     * @return シートの順に並んだフォーマット結果。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public List<SheetFormatResult> format(final Workbook workbook) {
+        return format(workbook, Locale.getDefault());
+    }
+
+    /**
+     * ロケールを指定してワークブックの全てのシートをフォーマットする。
+     * @param workbook フォーマット対象のワークブック。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @return シートの順に並んだフォーマット結果。
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public List<SheetFormatResult> format(final Workbook workbook, final Locale locale) {
+        ArgUtils.notNull(workbook, "workbook");
+
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        final POICellFormatter formatter = cellFormatter;
+        final WorkbookTask task = new WorkbookTask(formatter, workbook, runtimeLocale, getColumnProjection());
+
+        try {
+            if(forkJoinPool != null) {
+                return forkJoinPool.invoke(task);
+            }
+
+            final ForkJoinPool pool = new ForkJoinPool();
+            try {
+                return pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+
+        } finally {
+            // ワークブックを保持し続けないよう、数式の評価に利用したインスタンスを破棄する
+            formatter.releaseFormulaEvaluator(workbook);
+        }
+    }
+
+    /**
+     * シート内のセルをフォーマットする。
+     * @param cellFormatter フォーマッタ
+     * @param sheet シート
+     * @param sheetIndex シートの番号
+     * @param locale ロケール
+     * @param columns フォーマット対象の列。nullの場合は全ての列。
+     * @return フォーマットした結果
+     */
+    private static SheetFormatResult formatSheet(final POICellFormatter cellFormatter, final Sheet sheet,
+            final int sheetIndex, final Locale locale, final BitSet columns) {
+
+        final long startTime = System.nanoTime();
+
+        // 結合領域の索引は、シートごとに1度だけ取得する
+        final MergedRegionIndex mergedRegionIndex = cellFormatter.isConsiderMergedCell() ?
+                cellFormatter.getMergedRegionIndex(sheet) : null;
+
+        final List<FormattedRow> rows = new ArrayList<>(sheet.getPhysicalNumberOfRows());
+        for(Iterator<Row> rowIterator = sheet.rowIterator(); rowIterator.hasNext(); ) {
+            final Row row = rowIterator.next();
+
+            final FormattedRow formattedRow = new FormattedRow();
+            formattedRow.reset(row.getRowNum());
+            if(columns == null) {
+                for(Iterator<Cell> cellIterator = row.cellIterator(); cellIterator.hasNext(); ) {
+                    final Cell cell = cellIterator.next();
+                    formattedRow.add(cell.getColumnIndex(), cellFormatter.format(cell, locale, mergedRegionIndex));
+                }
+
+            } else {
+                // 対象の列のセルのみを参照する
+                final int lastCellNum = row.getLastCellNum();
+                for(int column = columns.nextSetBit(0); column >= 0 && column < lastCellNum; column = columns.nextSetBit(column + 1)) {
+                    final Cell cell = row.getCell(column);
+                    if(cell != null) {
+                        formattedRow.add(column, cellFormatter.format(cell, locale, mergedRegionIndex));
+                    }
+                }
+            }
+
+            rows.add(formattedRow);
+        }
+
+        return new SheetFormatResult(sheetIndex, sheet.getSheetName(), rows, System.nanoTime() - startTime);
+    }
+
+    /**
+     * セルをフォーマットする{@link POICellFormatter}を取得する。
+     * @return
+     */
+    public POICellFormatter getCellFormatter() {
+        return cellFormatter;
+    }
+
+    /**
+     * セルをフォーマットする{@link POICellFormatter}を設定する。
+     * <p>複数のスレッドから同時に利用されるため、フォーマット中に設定を変更しないでください。
+     * @param cellFormatter
+     * @throws IllegalArgumentException {@literal cellFormatter == null.}
+     */
+    public void setCellFormatter(POICellFormatter cellFormatter) {
+        ArgUtils.notNull(cellFormatter, "cellFormatter");
+        this.cellFormatter = cellFormatter;
+    }
+
+    /**
+     * 並列処理に利用するプールを取得する。
+     * @return 設定されていない場合は、nullを返す。
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    /**
+     * 並列処理に利用するプールを設定する。
+     * <p>nullの場合は、呼び出しごとにプールを作成して破棄します。
+     * @param forkJoinPool
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+
+    /**
+     * フォーマット対象の列番号の集合を取得する。
+     * @since 0.11
+     * @return 設定されていない場合は、nullを返す。
+     */
+    public BitSet getColumnProjection() {
+        return columnProjection == null ? null : (BitSet) columnProjection.clone();
+    }
+
+    /**
+     * フォーマット対象の列番号(0から始まる)の集合を設定する。
+     * <p>指定していない列のセルは、値や書式を読み込まずに読み飛ばします。
+     * <p>対象の列のセルのみを、{@link SheetFormatResult}の行に格納します。
+     * @since 0.11
+     * @param columnProjection nullの場合は、全ての列を対象とする。
+     */
+    public void setColumnProjection(BitSet columnProjection) {
+        this.columnProjection = (columnProjection == null ? null : (BitSet) columnProjection.clone());
+    }
+
+    /**
+     * ワークブックの全てのシートを並列にフォーマットするタスク。
+     */
+    private static final class WorkbookTask extends RecursiveTask<List<SheetFormatResult>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final POICellFormatter cellFormatter;
+
+        private final Workbook workbook;
+
+        private final Locale locale;
+
+        private final BitSet columns;
+
+        private WorkbookTask(final POICellFormatter cellFormatter, final Workbook workbook, final Locale locale,
+                final BitSet columns) {
+            this.cellFormatter = cellFormatter;
+            this.workbook = workbook;
+            this.locale = locale;
+            this.columns = columns;
+        }
+
+        @Override
+        protected List<SheetFormatResult> compute() {
+
+            final int sheetNum = workbook.getNumberOfSheets();
+            final List<SheetTask> tasks = new ArrayList<>(sheetNum);
+            for(int i=0; i < sheetNum; i++) {
+                tasks.add(new SheetTask(cellFormatter, workbook.getSheetAt(i), i, locale, columns));
+            }
+
+            ForkJoinTask.invokeAll(tasks);
+
+            final List<SheetFormatResult> results = new ArrayList<>(sheetNum);
+            for(SheetTask task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        }
+
+    }
+
+    /**
+     * 1つのシートをフォーマットするタスク。
+     */
+    private static final class SheetTask extends RecursiveTask<SheetFormatResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final POICellFormatter cellFormatter;
+
+        private final Sheet sheet;
+
+        private final int sheetIndex;
+
+        private final Locale locale;
+
+        private final BitSet columns;
+
+        private SheetTask(final POICellFormatter cellFormatter, final Sheet sheet, final int sheetIndex, final Locale locale,
+                final BitSet columns) {
+            this.cellFormatter = cellFormatter;
+            this.sheet = sheet;
+            this.sheetIndex = sheetIndex;
+            this.locale = locale;
+            this.columns = columns;
+        }
+
+        @Override
+        protected SheetFormatResult compute() {
+            return formatSheet(cellFormatter, sheet, sheetIndex, locale, columns);
+        }
+
+    }
+
+}
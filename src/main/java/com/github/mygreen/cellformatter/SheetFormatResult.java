@@ -0,0 +1,73 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * シート単位でフォーマットした結果。
+ * <p>値が存在する行を行番号の順に保持します。
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetFormatResult {
+
+    private final int sheetIndex;
+
+    private final String sheetName;
+
+    private final List<FormattedRow> rows;
+
+    private final long elapsedNanos;
+
+    /**
+     * インスタンスを作成する。
+     * @param sheetIndex シートの番号(0から始まる)。
+     * @param sheetName シート名。
+     * @param rows フォーマットした行の一覧。
+     * @param elapsedNanos フォーマットに要した時間(ナノ秒)。
+     */
+    public SheetFormatResult(final int sheetIndex, final String sheetName, final List<FormattedRow> rows, final long elapsedNanos) {
+        this.sheetIndex = sheetIndex;
+        this.sheetName = sheetName;
+        this.rows = Collections.unmodifiableList(rows);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * シートの番号を取得する。
+     * @return 0から始まるシートの番号。
+     */
+    public int getSheetIndex() {
+        return sheetIndex;
+    }
+
+    /**
+     * シート名を取得する。
+     * @return シート名。
+     */
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    /**
+     * フォーマットした行の一覧を取得する。
+     * @return 行番号の順に並んだ、変更不可能な一覧。
+     */
+    public List<FormattedRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * シートのフォーマットに要した時間を取得する。
+     * @param unit 時間の単位。
+     * @return 指定した単位に変換した時間。
+     */
+    public long getElapsedTime(final TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
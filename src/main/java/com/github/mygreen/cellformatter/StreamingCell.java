@@ -0,0 +1,140 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Date;
+
+import org.apache.poi.ss.util.CellReference;
+
+import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
+
+
+/**
+ * ストリーミング処理で読み込んだセルの値を保持するクラス。
+ * <p>ワークブックのモデルを作成せずに、読み込んだ値と書式を直接フォーマッタに渡すために利用します。
+ * <p>インスタンスはセルごとに値を設定し直して再利用します。
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingCell implements CommonCell {
+
+    private int rowIndex;
+
+    private int columnIndex;
+
+    private short formatIndex;
+
+    private String formatPattern = "";
+
+    private boolean dateStart1904;
+
+    private FormatCellType cellType = FormatCellType.Blank;
+
+    private String textValue;
+
+    private boolean booleanValue;
+
+    private double numberValue;
+
+    /**
+     * セルの位置と書式を設定する。
+     * <p>値は空に初期化します。
+     * @param rowIndex 行番号(0から始まる)
+     * @param columnIndex 列番号(0から始まる)
+     * @param formatIndex 書式のインデックス番号
+     * @param formatPattern 書式のパターン
+     */
+    void reset(final int rowIndex, final int columnIndex, final short formatIndex, final String formatPattern) {
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+        this.formatIndex = formatIndex;
+        this.formatPattern = (formatPattern == null ? "" : formatPattern);
+        this.cellType = FormatCellType.Blank;
+        this.textValue = null;
+        this.booleanValue = false;
+        this.numberValue = 0.0;
+    }
+
+    void setTextValue(final String value) {
+        this.cellType = FormatCellType.Text;
+        this.textValue = value;
+    }
+
+    void setBooleanValue(final boolean value) {
+        this.cellType = FormatCellType.Boolean;
+        this.booleanValue = value;
+    }
+
+    void setNumberValue(final double value) {
+        this.cellType = FormatCellType.Number;
+        this.numberValue = value;
+    }
+
+    void setDateStart1904(final boolean dateStart1904) {
+        this.dateStart1904 = dateStart1904;
+    }
+
+    int getRowIndex() {
+        return rowIndex;
+    }
+
+    int getColumnIndex() {
+        return columnIndex;
+    }
+
+    @Override
+    public short getFormatIndex() {
+        return formatIndex;
+    }
+
+    @Override
+    public String getFormatPattern() {
+        return formatPattern;
+    }
+
+    @Override
+    public boolean isText() {
+        return cellType == FormatCellType.Text;
+    }
+
+    @Override
+    public boolean isBoolean() {
+        return cellType == FormatCellType.Boolean;
+    }
+
+    @Override
+    public boolean isNumber() {
+        return cellType == FormatCellType.Number;
+    }
+
+    @Override
+    public String getTextCellValue() {
+        return textValue;
+    }
+
+    @Override
+    public boolean getBooleanCellValue() {
+        return booleanValue;
+    }
+
+    @Override
+    public double getNumberCellValue() {
+        return numberValue;
+    }
+
+    @Override
+    public Date getDateCellValue() {
+        return ExcelDateUtils.convertJavaDate(numberValue, dateStart1904);
+    }
+
+    @Override
+    public boolean isDateStart1904() {
+        return dateStart1904;
+    }
+
+    @Override
+    public String getCellAddress() {
+        return CellReference.convertNumToColString(columnIndex) + String.valueOf(rowIndex+1);
+    }
+
+}
@@ -0,0 +1,603 @@
+package com.github.mygreen.cellformatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.Locale;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * Excel2007以降の形式(xlsx)のファイルを、ワークブックのモデルを作成せずにフォーマットするクラス。
+ * <p>POIの{@link XSSFReader}を利用してシートのXMLをSAXで読み込み、セルの値と書式から直接フォーマットします。
+ *    フォーマットした結果は、1行ごとに{@link FormattedRowHandler}に渡します。
+ *
+ * <h3 class="description">基本的な使い方</h3>
+ * <pre class="highlight"><code class="java">
+ * XSSFStreamingCellFormatter cellFormatter = new XSSFStreamingCellFormatter();
+ *
+ * cellFormatter.format(new File("sample.xlsx"), Locale.JAPANESE, new FormattedRowHandler() {
+ *
+ *     public void startSheet(int sheetIndex, String sheetName) {
+ *     }
+ *
+ *     public void handleRow(FormattedRow row) {
+ *         for(int i=0; i &lt; row.getCellCount(); i++) {
+ *             String text = row.getResult(i).getText();
+ *         }
+ *     }
+ *
+ *     public void endSheet(int sheetIndex, String sheetName) {
+ *     }
+ * });
+ * </code></pre>
+ *
+ * <h3 class="description">注意事項</h3>
+ * <ul>
+ *   <li>メモリ上に保持するのは、処理中の1行分のセルとスタイルの表、共有文字列の表のみです。</li>
+ *   <li>数式は評価せずに、ファイルに保存されている計算結果の値をフォーマットします。
+ *       <br>計算結果が保存されていない場合は、空セルとして扱います。</li>
+ *   <li>結合されたセルは考慮しません。
+ *       <br>結合領域の情報はシートのXMLの末尾に記録されているためです。</li>
+ * </ul>
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class XSSFStreamingCellFormatter {
+
+    private FormatterResolver formatterResolver = new FormatterResolver();
+
+    /**
+     * パースしたフォーマッタをキャッシュするかどうか。
+     */
+    private boolean cache = true;
+
+    /**
+     * エラーセルの値を空文字として取得するかどうか。
+     */
+    private boolean errorCellAsEmpty = false;
+
+    /**
+     * フォーマット対象の列番号の集合。nullの場合は全ての列。
+     */
+    private BitSet columnProjection;
+
+    /**
+     * ファイルを読み込み、全てのシートのセルをフォーマットする。
+     * @param file 読み込み対象のファイル。
+     * @param handler フォーマットした行を受け取るハンドラ。
+     * @throws IllegalArgumentException {@literal file == null or handler == null.}
+     * @throws IOException ファイルの読み込みに失敗した場合。
+     * @throws SAXException XMLの解析に失敗した場合。
+     * @throws OpenXML4JException ファイルの形式が不正な場合。
+     */
+    public void format(final File file, final FormattedRowHandler handler)
+            throws IOException, SAXException, OpenXML4JException {
+        format(file, Locale.getDefault(), handler);
+    }
+
+    /**
+     * ロケールを指定してファイルを読み込み、全てのシートのセルをフォーマットする。
+     * @param file 読み込み対象のファイル。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param handler フォーマットした行を受け取るハンドラ。
+     * @throws IllegalArgumentException {@literal file == null or handler == null.}
+     * @throws IOException ファイルの読み込みに失敗した場合。
+     * @throws SAXException XMLの解析に失敗した場合。
+     * @throws OpenXML4JException ファイルの形式が不正な場合。
+     */
+    public void format(final File file, final Locale locale, final FormattedRowHandler handler)
+            throws IOException, SAXException, OpenXML4JException {
+        ArgUtils.notNull(file, "file");
+
+        final OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+        try {
+            format(pkg, locale, handler);
+        } finally {
+            // 読み込み専用のため、保存せずに閉じる。
+            pkg.revert();
+        }
+    }
+
+    /**
+     * ロケールを指定してパッケージを読み込み、全てのシートのセルをフォーマットする。
+     * @param pkg 読み込み対象のパッケージ。処理後もパッケージは閉じません。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param handler フォーマットした行を受け取るハンドラ。
+     * @throws IllegalArgumentException {@literal pkg == null or handler == null.}
+     * @throws IOException ファイルの読み込みに失敗した場合。
+     * @throws SAXException XMLの解析に失敗した場合。
+     * @throws OpenXML4JException ファイルの形式が不正な場合。
+     */
+    public void format(final OPCPackage pkg, final Locale locale, final FormattedRowHandler handler)
+            throws IOException, SAXException, OpenXML4JException {
+        ArgUtils.notNull(pkg, "pkg");
+        ArgUtils.notNull(handler, "handler");
+
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+
+        final XSSFReader reader = new XSSFReader(pkg);
+        final ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+        final StyleFormatterTable styleTable = new StyleFormatterTable(reader.getStylesTable());
+
+        final WorkbookHandler workbookHandler = new WorkbookHandler();
+        try(InputStream in = reader.getWorkbookData()) {
+            parse(in, workbookHandler);
+        }
+
+        final SheetHandler sheetHandler = new SheetHandler(sharedStrings, styleTable,
+                workbookHandler.dateStart1904, runtimeLocale, handler);
+
+        final XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) reader.getSheetsData();
+        int sheetIndex = 0;
+        while(sheetIterator.hasNext()) {
+            try(InputStream in = sheetIterator.next()) {
+                final String sheetName = sheetIterator.getSheetName();
+                handler.startSheet(sheetIndex, sheetName);
+                parse(in, sheetHandler);
+                handler.endSheet(sheetIndex, sheetName);
+            }
+            sheetIndex++;
+        }
+    }
+
+    /**
+     * XMLを読み込む。
+     * @param in 読み込み対象のXML
+     * @param handler SAXのハンドラ
+     */
+    private static void parse(final InputStream in, final DefaultHandler handler) throws IOException, SAXException {
+
+        final XMLReader xmlReader;
+        try {
+            xmlReader = SAXHelper.newXMLReader();
+        } catch(ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+
+        xmlReader.setContentHandler(handler);
+        xmlReader.parse(new InputSource(in));
+    }
+
+    /**
+     * 書式のインデックス番号とパターンから、フォーマッタを解決する。
+     * @param formatIndex 書式のインデックス番号
+     * @param formatPattern 書式のパターン
+     * @return フォーマッタ
+     */
+    private CellFormatter resolveCellFormatter(final short formatIndex, final String formatPattern) {
+        return formatterResolver.resolveFormatter(formatIndex, formatPattern, isCache());
+    }
+
+    /**
+     * ブランクセルの結果を作成する。
+     * @return
+     */
+    private static CellFormatResult createBlankCellResult() {
+        CellFormatResult result = new CellFormatResult();
+        result.setCellType(FormatCellType.Blank);
+        result.setText("");
+        return result;
+    }
+
+    /**
+     * エラーセルの値を評価する。
+     * @param errorValue エラーの文字列。
+     * @return
+     */
+    private CellFormatResult getErrorCellValue(final String errorValue) {
+
+        final CellFormatResult result = new CellFormatResult();
+
+        final FormulaError error;
+        try {
+            error = FormulaError.forString(errorValue);
+        } catch(IllegalArgumentException e) {
+            result.setCellType(FormatCellType.Unknown);
+            result.setText("");
+            return result;
+        }
+
+        result.setCellType(FormatCellType.Error);
+        result.setValue(error.getCode());
+
+        if(isErrorCellAsEmpty()) {
+            result.setText("");
+        } else {
+            result.setText(error.getString());
+        }
+
+        return result;
+    }
+
+    /**
+     * {@link FormatterResolver}を取得する。
+     * @return
+     */
+    public FormatterResolver getFormatterResolver() {
+        return formatterResolver;
+    }
+
+    /**
+     * {@link FormatterResolver}を設定する。
+     * 独自のものに入れ替える際に利用します。
+     * @param formatterResolver
+     */
+    public void setFormatterResolver(FormatterResolver formatterResolver) {
+        this.formatterResolver = formatterResolver;
+    }
+
+    /**
+     * パースしたフォーマッタをキャッシュするかどうか。
+     * 初期値はtrueです。
+     * @return
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * パースしたフォーマッタをキャッシュするかどうか設定する。
+     * @param cache true:キャッシュする。
+     */
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * エラーセルの値を空文字として取得するかどうか。
+     * 初期値はfalseです。
+     * @return
+     */
+    public boolean isErrorCellAsEmpty() {
+        return errorCellAsEmpty;
+    }
+
+    /**
+     * エラーセルの値を空文字として取得するかどうか設定する。
+     * @param errorCellAsEmpty true:空文字として取得する。
+     */
+    public void setErrorCellAsEmpty(boolean errorCellAsEmpty) {
+        this.errorCellAsEmpty = errorCellAsEmpty;
+    }
+
+
+    /**
+     * フォーマット対象の列番号の集合を取得する。
+     * @since 0.11
+     * @return 設定されていない場合は、nullを返す。
+     */
+    public BitSet getColumnProjection() {
+        return columnProjection == null ? null : (BitSet) columnProjection.clone();
+    }
+
+    /**
+     * フォーマット対象の列番号(0から始まる)の集合を設定する。
+     * <p>指定していない列のセルは、値や書式を読み込まずに読み飛ばします。
+     * <p>共有文字列の表は、ファイルの形式上、全て読み込みます。
+     * @since 0.11
+     * @param columnProjection nullの場合は、全ての列を対象とする。
+     */
+    public void setColumnProjection(BitSet columnProjection) {
+        this.columnProjection = (columnProjection == null ? null : (BitSet) columnProjection.clone());
+    }
+
+    /**
+     * 列がフォーマット対象かどうか。
+     * @param columnIndex 列番号
+     * @return true:フォーマット対象の場合。
+     */
+    private boolean isProjected(final int columnIndex) {
+        final BitSet projection = columnProjection;
+        return projection == null || projection.get(columnIndex);
+    }
+
+    /**
+     * スタイルのインデックスと、書式およびフォーマッタの表。
+     * <p>初回の参照時に書式を取得してフォーマッタを解決し、以降は保持した値を返す。
+     */
+    private final class StyleFormatterTable {
+
+        private final StylesTable stylesTable;
+
+        private short[] formatIndexes;
+
+        private String[] formatPatterns;
+
+        private CellFormatter[] formatters;
+
+        private StyleFormatterTable(final StylesTable stylesTable) {
+            this.stylesTable = stylesTable;
+
+            final int size = Math.max(stylesTable.getNumCellStyles(), 1);
+            this.formatIndexes = new short[size];
+            this.formatPatterns = new String[size];
+            this.formatters = new CellFormatter[size];
+        }
+
+        /**
+         * スタイルのインデックスに対する書式を、セルに設定する。
+         * @param styleIndex スタイルのインデックス
+         * @param cell 設定対象のセル
+         * @param rowIndex 行番号
+         * @param columnIndex 列番号
+         */
+        private void resetCell(final int styleIndex, final StreamingCell cell, final int rowIndex, final int columnIndex) {
+            final int index = resolve(styleIndex);
+            cell.reset(rowIndex, columnIndex, formatIndexes[index], formatPatterns[index]);
+        }
+
+        /**
+         * スタイルのインデックスに対するフォーマッタを取得する。
+         * @param styleIndex スタイルのインデックス
+         * @return フォーマッタ
+         */
+        private CellFormatter getFormatter(final int styleIndex) {
+            return formatters[resolve(styleIndex)];
+        }
+
+        /**
+         * スタイルのインデックスに対する書式とフォーマッタを解決する。
+         * @param styleIndex スタイルのインデックス
+         * @return 表の添え字。範囲外のインデックスの場合は、標準のスタイルの添え字を返す。
+         */
+        private int resolve(final int styleIndex) {
+
+            final int index = (styleIndex >= 0 && styleIndex < formatters.length) ? styleIndex : 0;
+            if(formatters[index] != null) {
+                return index;
+            }
+
+            final XSSFCellStyle style = stylesTable.getNumCellStyles() > index ? stylesTable.getStyleAt(index) : null;
+            short formatIndex = 0;
+            String formatPattern = null;
+            if(style != null) {
+                formatIndex = style.getDataFormat();
+                formatPattern = style.getDataFormatString();
+            }
+
+            formatIndexes[index] = formatIndex;
+            formatPatterns[index] = (formatPattern == null ? "" : formatPattern);
+            formatters[index] = resolveCellFormatter(formatIndex, formatPatterns[index]);
+            return index;
+        }
+
+    }
+
+    /**
+     * ワークブックの設定を読み込むハンドラ。
+     */
+    private static final class WorkbookHandler extends DefaultHandler {
+
+        /**
+         * 日時の開始日が1904年かどうか。
+         */
+        private boolean dateStart1904 = false;
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+
+            if("workbookPr".equals(localName)) {
+                final String value = attributes.getValue("date1904");
+                dateStart1904 = "1".equals(value) || "true".equalsIgnoreCase(value);
+            }
+        }
+
+    }
+
+    /**
+     * シートのセルを読み込みフォーマットするハンドラ。
+     */
+    private final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+
+        private final StyleFormatterTable styleTable;
+
+        private final Locale locale;
+
+        private final FormattedRowHandler rowHandler;
+
+        private final StreamingCell cell = new StreamingCell();
+
+        private final FormattedRow row = new FormattedRow();
+
+        private final StringBuilder value = new StringBuilder();
+
+        private int rowIndex;
+
+        private int columnIndex;
+
+        private int styleIndex;
+
+        private String valueType;
+
+        private boolean hasValue;
+
+        /**
+         * 処理中のセルがフォーマット対象の列かどうか
+         */
+        private boolean projected;
+
+        private boolean inValue;
+
+        private boolean inInlineString;
+
+        private boolean inPhonetic;
+
+        private SheetHandler(final ReadOnlySharedStringsTable sharedStrings, final StyleFormatterTable styleTable,
+                final boolean dateStart1904, final Locale locale, final FormattedRowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.styleTable = styleTable;
+            this.locale = locale;
+            this.rowHandler = rowHandler;
+            cell.setDateStart1904(dateStart1904);
+        }
+
+        @Override
+        public void startDocument() {
+            this.rowIndex = -1;
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+
+            switch(localName) {
+                case "row":
+                    final String r = attributes.getValue("r");
+                    rowIndex = (r != null ? Integer.parseInt(r) - 1 : rowIndex + 1);
+                    columnIndex = -1;
+                    row.reset(rowIndex);
+                    break;
+
+                case "c":
+                    final String ref = attributes.getValue("r");
+                    columnIndex = (ref != null ? parseColumnIndex(ref) : columnIndex + 1);
+
+                    projected = isProjected(columnIndex);
+                    if(!projected) {
+                        break;
+                    }
+
+                    final String s = attributes.getValue("s");
+                    styleIndex = (s != null ? Integer.parseInt(s) : 0);
+                    valueType = attributes.getValue("t");
+                    hasValue = false;
+                    value.setLength(0);
+                    break;
+
+                case "v":
+                    inValue = projected;
+                    hasValue = true;
+                    break;
+
+                case "is":
+                    inInlineString = projected;
+                    hasValue = true;
+                    break;
+
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+
+            switch(localName) {
+                case "row":
+                    rowHandler.handleRow(row);
+                    break;
+
+                case "c":
+                    if(projected) {
+                        row.add(columnIndex, formatCell());
+                    }
+                    break;
+
+                case "v":
+                    inValue = false;
+                    break;
+
+                case "is":
+                    inInlineString = false;
+                    break;
+
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if(inValue || (inInlineString && !inPhonetic)) {
+                value.append(ch, start, length);
+            }
+        }
+
+        /**
+         * 読み込んだセルの値をフォーマットする。
+         * @return フォーマットした結果
+         */
+        private CellFormatResult formatCell() {
+
+            if(!hasValue) {
+                return createBlankCellResult();
+            }
+
+            if("e".equals(valueType)) {
+                return getErrorCellValue(value.toString());
+            }
+
+            styleTable.resetCell(styleIndex, cell, rowIndex, columnIndex);
+
+            if(valueType == null || "n".equals(valueType)) {
+                cell.setNumberValue(Double.parseDouble(value.toString()));
+
+            } else if("s".equals(valueType)) {
+                cell.setTextValue(sharedStrings.getEntryAt(Integer.parseInt(value.toString().trim())));
+
+            } else if("b".equals(valueType)) {
+                cell.setBooleanValue("1".equals(value.toString().trim()));
+
+            } else {
+                // inlineStr, str(数式の文字列の結果)など
+                cell.setTextValue(value.toString());
+            }
+
+            return styleTable.getFormatter(styleIndex).format(cell, locale);
+        }
+
+    }
+
+    /**
+     * 'A12'形式のセルのアドレスから列番号を取得する。
+     * @param ref セルのアドレス
+     * @return 0から始まる列番号
+     */
+    private static int parseColumnIndex(final String ref) {
+
+        int columnIndex = 0;
+        for(int i=0; i < ref.length(); i++) {
+            final char c = ref.charAt(i);
+            if(c < 'A' || c > 'Z') {
+                break;
+            }
+            columnIndex = columnIndex * 26 + (c - 'A' + 1);
+        }
+
+        return columnIndex - 1;
+    }
+
+}
@@ -14,6 +14,7 @@ import java.util.concurrent.TimeUnit;
  *  <li>Javaの形式に変換したときは、1900年3月1日扱いとする。</li>
  * </ul>
  *
+ * @version 0.11
  * @since 0.6
  * @author T.TSUCHIE
  *
@@ -25,6 +26,12 @@ public class ExcelDateUtils {
      */
     public static final int SECONDS_IN_DAYS = (int) TimeUnit.HOURS.toSeconds(24);
     
+    /**
+     * 24時間のミリ秒数。
+     * @since 0.11
+     */
+    public static final long MILLISECONDS_IN_DAYS = TimeUnit.HOURS.toMillis(24);
+    
     /**
      * {@literal 1900-01-01 00:00:00.000}の時間（単位はミリ秒）。
      * <p>Excelは設定により、1900年始まりか1904年始まりか指定できるため、その基準値として利用する。
@@ -69,6 +76,14 @@ public class ExcelDateUtils {
      */
     public static final int NON_LEAP_DAY = 61;
     
+    /**
+     * {@link #convertExcelNumber(long, boolean)}で、{@literal double}の除算のみで変換できる経過日数の下限。
+     * <p>秒単位の時間の場合、経過日数が{@literal 2^12}日以上であれば、{@literal double}の隣り合う値の中間点と、
+     *    正確な値の差は必ず{@literal 1/(86400 x 2^41)}以上あり、小数第17位の四捨五入の誤差よりも大きい。
+     *    そのため、{@link BigDecimal}で計算した値と一致する。</p>
+     */
+    private static final long MIN_DAYS_PRIMITIVE_CONVERSION = 4096;
+    
     /**
      * Excel表現上の数値をJavaの{@link Date}型(UTC形式)に変換する。
      * <p>1900年始まりの場合は以下の注意が必要。</p>
@@ -84,6 +99,20 @@ public class ExcelDateUtils {
      *         変換後は独自に処理を行う必要があります。
      */
     public static Date convertJavaDate(final double numValue, final boolean startDate1904) {
+        return new Date(convertJavaTime(numValue, startDate1904));
+    }
+    
+    /**
+     * Excel表現上の数値をJavaの時間（UTC形式、単位はミリ秒）に変換する。
+     * <p>{@link #convertJavaDate(double, boolean)}と同じ値を、{@link Date}のインスタンスを作成せずに返します。</p>
+     * 
+     * @since 0.11
+     * @param numValue 変換対象のExcel表現上の数値。
+     * @param startDate1904 基準日が1904年始まりかどうか。
+     * @return Java表現上に変換した時間（{@literal 1970-01-01 00:00:00.000}からのミリ秒）。
+     *         ただし、この値はタイムゾーンは考慮されていない（=GMT-00:00）。
+     */
+    public static long convertJavaTime(final double numValue, final boolean startDate1904) {
         
         double utcDay;
         if(startDate1904) {
@@ -114,8 +143,7 @@ public class ExcelDateUtils {
          * Javaのミリ秒に直す。
          * ・Excelの日付の形式の場合小数部が時間を示すため、24時間分のミリ秒を考慮する。
          */
-        long utcTime = Math.round(utcDay * SECONDS_IN_DAYS) * 1000;
-        return new Date(utcTime);
+        return Math.round(utcDay * SECONDS_IN_DAYS) * 1000;
         
     }
     
@@ -141,12 +169,23 @@ public class ExcelDateUtils {
     public static double convertExcelNumber(final Date value, final boolean startDate1904) {
         
         ArgUtils.notNull(value, "value");
+        return convertExcelNumberByDecimal(value.getTime(), startDate1904);
+        
+    }
+    
+    /**
+     * {@link BigDecimal}を使用して、Javaの時間をExcelの内部表現の数値に変換する。
+     * <p>小数第17位で四捨五入してから、{@literal double}に変換する。</p>
+     * @param utcDay 変換対象のJava表現上の時間（単位はミリ秒）。
+     * @param startDate1904 基準日が1904年始まりかどうか。
+     * @return Excel表現上に変換した数値。
+     */
+    private static double convertExcelNumberByDecimal(final long utcDay, final boolean startDate1904) {
         
         /*
          * Excelの時間の表現に直す。
          * ・Excelの日付の形式の場合小数部が時間を示すため、24時間分のミリ秒を考慮する。
          */
-        long utcDay = value.getTime();
         BigDecimal numValue = new BigDecimal(utcDay);
         numValue = numValue.divide(new BigDecimal(SECONDS_IN_DAYS * 1000), 17, BigDecimal.ROUND_HALF_UP);
         
@@ -168,6 +207,44 @@ public class ExcelDateUtils {
         
     }
     
+    /**
+     * Javaの時間（UTC形式、単位はミリ秒）をExcelの内部表現の数値に変換する。
+     * <p>{@link #convertExcelNumber(Date, boolean)}と同じ値を返します。</p>
+     * <p>秒単位の時間で、基準日からの経過日数が4096日以上の場合は、
+     *    {@link BigDecimal}を使用せず、整数のミリ秒を1日のミリ秒で1回だけ除算して求めます。
+     *    それ以外の場合は、小数第17位の四捨五入による結果を合わせるため、{@link BigDecimal}で計算します。</p>
+     * 
+     * @since 0.11
+     * @param utcTime 変換対象のJava表現上の時間（{@literal 1970-01-01 00:00:00.000}からのミリ秒）。タイムゾーンを排除した（GMT-00:00）値。
+     * @param startDate1904 基準日が1904年始まりかどうか。
+     * @return Excel表現上に変換した数値。
+     */
+    public static double convertExcelNumber(final long utcTime, final boolean startDate1904) {
+        
+        long elapsedTime;
+        if(startDate1904) {
+            // 1904年始まりの場合
+            elapsedTime = utcTime - OFFSET_DAYS_1904 * MILLISECONDS_IN_DAYS;
+            
+        } else {
+            // 1900年始まりの場合
+            elapsedTime = utcTime - OFFSET_DAYS_1900 * MILLISECONDS_IN_DAYS;
+            
+            // 1900年3月1日以降は、Excel上の1900年2月29日の分を加算する。
+            if(elapsedTime >= (NON_LEAP_DAY - 1) * MILLISECONDS_IN_DAYS) {
+                elapsedTime += MILLISECONDS_IN_DAYS;
+            }
+        }
+        
+        // ミリ秒を含む場合、または基準日に近い場合は、double同士の丸めの結果が異なる可能性がある
+        if(elapsedTime % 1000 != 0 || Math.abs(elapsedTime) < MIN_DAYS_PRIMITIVE_CONVERSION * MILLISECONDS_IN_DAYS) {
+            return convertExcelNumberByDecimal(utcTime, startDate1904);
+        }
+        
+        return (double) elapsedTime / MILLISECONDS_IN_DAYS;
+        
+    }
+    
     /**
      * 日時形式を{@literal yyyy-MM-dd HH:mm:ss.SSS}の書式でフォーマットする。
      * <p>ただし、タイムゾーンは、標準時間の{@literal GMT-00:00}で処理する。
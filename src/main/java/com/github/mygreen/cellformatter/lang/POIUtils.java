@@ -0,0 +1,129 @@
+package com.github.mygreen.cellformatter.lang;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Apache POIのユーティリティクラス。
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class POIUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(POIUtils.class);
+
+    /**
+     * ワークブックごとの1904年始まりかどうかの判定結果のキャッシュ
+     */
+    private static final Map<Workbook, Boolean> dateStart1904Map = new WeakHashMap<>();
+
+    /**
+     * 直前に判定したワークブックの結果
+     */
+    private static volatile DateStart1904Entry lastDateStart1904;
+
+    /**
+     * ファイルが1904年始まりの設定かどうか。
+     * <p>判定結果はワークブックごとにキャッシュします。
+     *    直前と同じワークブックの場合は、ロックを取得せずに結果を返します。</p>
+     * @param workbook 判定対象のワークブック。
+     * @return true:1904年始まり
+     * @throws IllegalArgumentException {@literal workbook == null.}
+     */
+    public static boolean isDateStart1904(final Workbook workbook) {
+        ArgUtils.notNull(workbook, "workbook");
+
+        final DateStart1904Entry last = lastDateStart1904;
+        if(last != null && last.workbook.get() == workbook) {
+            return last.value;
+        }
+
+        Boolean value;
+        synchronized(dateStart1904Map) {
+            value = dateStart1904Map.get(workbook);
+            if(value == null) {
+                value = resolveDateStart1904(workbook);
+                dateStart1904Map.put(workbook, value);
+            }
+        }
+
+        lastDateStart1904 = new DateStart1904Entry(workbook, value);
+        return value;
+    }
+
+    /**
+     * ワークブックと、1904年始まりかどうかの判定結果の組。
+     */
+    private static final class DateStart1904Entry {
+
+        private final WeakReference<Workbook> workbook;
+
+        private final boolean value;
+
+        private DateStart1904Entry(final Workbook workbook, final boolean value) {
+            this.workbook = new WeakReference<>(workbook);
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * ワークブックから、1904年始まりの設定かどうかを取得する。
+     * @param workbook 判定対象のワークブック。
+     * @return true:1904年始まり
+     */
+    private static boolean resolveDateStart1904(final Workbook workbook) {
+
+        if(workbook instanceof HSSFWorkbook) {
+            return ((HSSFWorkbook) workbook).getInternalWorkbook().isUsing1904DateWindowing();
+
+        } else if(workbook instanceof XSSFWorkbook) {
+            return ((XSSFWorkbook) workbook).isDate1904();
+
+        } else if(workbook instanceof SXSSFWorkbook) {
+            return ((SXSSFWorkbook) workbook).getXSSFWorkbook().isDate1904();
+
+        } else {
+            logger.warn("unknown workbook type : {}", workbook.getClass().getName());
+        }
+
+        return false;
+    }
+
+    /**
+     * 数式のセルに、計算結果の値が保存されているかどうか。
+     * <p>xlsx形式の場合は、セルに値の要素が存在するかどうかで判定します。
+     *    xls形式の場合は、数式のレコードが常に値を持つため、trueを返します。
+     * @param cell 判定対象のセル。
+     * @return true:計算結果の値が保存されている場合。数式のセルでない場合はfalseを返す。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public static boolean hasCachedFormulaResult(final Cell cell) {
+        ArgUtils.notNull(cell, "cell");
+
+        if(cell.getCellTypeEnum() != CellType.FORMULA) {
+            return false;
+        }
+
+        if(cell instanceof XSSFCell) {
+            return ((XSSFCell) cell).getCTCell().isSetV();
+        }
+
+        return true;
+    }
+
+}
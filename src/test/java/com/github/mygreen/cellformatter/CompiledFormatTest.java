@@ -0,0 +1,235 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.github.mygreen.cellformatter.lang.MSColor;
+
+/**
+ * {@link CompiledFormat}のテスタ
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class CompiledFormatTest {
+
+    /**
+     * 書式から作成した場合
+     */
+    @Test
+    public void testCompile_pattern() {
+
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        CompiledFormat format = cellFormatter.compile("#,##0.0_);[Red]\\(#,##0.0\\)", Locale.JAPANESE);
+
+        assertThat(format.getFormatIndex(), is((short)-1));
+        assertThat(format.getFormatPattern(), is("#,##0.0_);[Red]\\(#,##0.0\\)"));
+        assertThat(format.getLocale(), is(Locale.JAPANESE));
+
+        CellFormatResult result = format.format(-1234.5d);
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(result.getText(), is("(1,234.5)"));
+        assertThat(result.getTextColor(), is(MSColor.RED));
+        assertThat(format.formatAsString(1234.5d), is("1,234.5 "));
+
+        // 同じ書式は、同じフォーマッタを利用する
+        assertThat(cellFormatter.compile("#,##0.0_);[Red]\\(#,##0.0\\)").getFormatter(), is(sameInstance(format.getFormatter())));
+    }
+
+    /**
+     * 各型の値をフォーマットする場合
+     */
+    @Test
+    public void testFormat_types() {
+
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+
+        CompiledFormat dateFormat = cellFormatter.compile("[$-411]ggge\"年\"m\"月\"d\"日\"\\ h:mm\\ AM/PM;@", Locale.JAPANESE);
+        assertThat(dateFormat.formatAsString(Timestamp.valueOf("2012-02-29 13:01:40")), is("平成24年2月29日 1:01 午後"));
+        assertThat(dateFormat.format(Timestamp.valueOf("2012-02-29 13:01:40")).getCellType(), is(FormatCellType.Date));
+        assertThat(dateFormat.formatAsString("今日"), is("今日"));
+
+        CompiledFormat textFormat = cellFormatter.compile("接頭語： @");
+        assertThat(textFormat.formatAsString("今日"), is("接頭語： 今日"));
+        assertThat(textFormat.format("今日").getCellType(), is(FormatCellType.Text));
+        assertThat(textFormat.formatAsString(true), is("接頭語： TRUE"));
+        assertThat(textFormat.format(false).getCellType(), is(FormatCellType.Boolean));
+    }
+
+    /**
+     * 組み込み書式のインデックスから作成した場合
+     */
+    @Test
+    public void testCompile_index() {
+
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+
+        CompiledFormat format = cellFormatter.compile((short)3, Locale.JAPANESE);
+        assertThat(format.getFormatIndex(), is((short)3));
+        assertThat(format.getFormatPattern(), is("#,##0"));
+        assertThat(format.formatAsString(1234567.0d), is("1,234,567"));
+
+        CompiledFormat generalFormat = cellFormatter.compile((short)0);
+        assertThat(generalFormat.formatAsString("abc"), is("abc"));
+        assertThat(generalFormat.formatAsString(1.5d), is("1.5"));
+    }
+
+    /**
+     * 登録されていないインデックスの場合
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testCompile_unknownIndex() {
+
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        cellFormatter.compile((short)1000);
+
+        fail();
+    }
+
+    /**
+     * 列をまとめてフォーマットする場合、値ごとにフォーマットした結果と一致すること。
+     */
+    @Test
+    public void testFormatColumn() {
+
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        final double[] values = {0.0d, 1.5d, -2.25d, 123.456d, 43000.5d, 1234567.0d};
+        final long[] longValues = {0L, 1L, -2L, 1234567L};
+
+        final CompiledFormat[] formats = {
+                cellFormatter.compile("#,##0.0_);[Red]\\(#,##0.0\\)", Locale.JAPANESE),
+                cellFormatter.compile("[>=100]\"大\";[<0]\"負\";0", Locale.JAPANESE),
+                cellFormatter.compile("yyyy/m/d", Locale.JAPANESE),
+                cellFormatter.compile((short)0, Locale.JAPANESE),
+                cellFormatter.compile((short)5, Locale.JAPANESE),
+                cellFormatter.compile((short)14, Locale.JAPANESE),
+        };
+
+        for(CompiledFormat format : formats) {
+            final String[] out = new String[values.length];
+            format.formatColumn(values, out);
+            for(int i=0; i < values.length; i++) {
+                assertThat(out[i], is(format.formatAsString(values[i])));
+            }
+
+            final String[] longOut = new String[longValues.length];
+            format.formatColumn(longValues, longOut);
+            for(int i=0; i < longValues.length; i++) {
+                assertThat(longOut[i], is(format.formatAsString((double)longValues[i])));
+            }
+        }
+    }
+
+    /**
+     * 出力先に追加する場合、文字列を取得した結果と一致すること。
+     */
+    @Test
+    public void testFormatTo() throws Exception {
+
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        final double[] values = {0.0d, 1.5d, -2.25d, 43000.5d};
+
+        final CompiledFormat[] formats = {
+                cellFormatter.compile("#,##0.0_);[Red]\\(#,##0.0\\)", Locale.JAPANESE),
+                cellFormatter.compile("[DBNum1]#,##0", Locale.JAPANESE),
+                cellFormatter.compile("yyyy/m/d", Locale.JAPANESE),
+                cellFormatter.compile((short)5, Locale.JAPANESE),
+                cellFormatter.compile((short)14, Locale.JAPANESE),
+        };
+
+        for(CompiledFormat format : formats) {
+            for(double value : values) {
+                final StringBuilder out = new StringBuilder("前:");
+                format.formatTo(out, value);
+                assertThat(out.toString(), is("前:" + format.formatAsString(value)));
+            }
+        }
+    }
+
+    /**
+     * 列を並列にフォーマットする場合
+     */
+    @Test
+    public void testFormatColumn_pool() {
+
+        final CompiledFormat format = new ObjectCellFormatter().compile("#,##0", Locale.JAPANESE);
+
+        final long[] values = new long[10000];
+        for(int i=0; i < values.length; i++) {
+            values[i] = i * 1000L;
+        }
+
+        final String[] out = new String[values.length];
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            format.formatColumn(values, out, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for(int i=0; i < values.length; i++) {
+            assertThat(out[i], is(String.format(Locale.US, "%,d", values[i])));
+        }
+    }
+
+    /**
+     * 格納先の長さが足りない場合
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testFormatColumn_shortOutput() {
+
+        final CompiledFormat format = new ObjectCellFormatter().compile("0");
+        format.formatColumn(new double[]{1.0d, 2.0d}, new String[1]);
+
+        fail();
+    }
+
+    /**
+     * 複数のスレッドから同時に利用する場合
+     */
+    @Test
+    public void testFormat_multiThread() throws Exception {
+
+        final CompiledFormat format = new ObjectCellFormatter().compile("#,##0.00", Locale.JAPANESE);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for(int t=0; t < 4; t++) {
+                futures.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        for(int i=0; i < 1000; i++) {
+                            if(!format.formatAsString(i * 1000.0d).equals(String.format(Locale.US, "%,d.00", i * 1000))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+
+            for(Future<Boolean> future : futures) {
+                assertThat(future.get(), is(true));
+            }
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -3,15 +3,20 @@ package com.github.mygreen.cellformatter;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.sql.Timestamp;
+import java.util.Locale;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import com.github.mygreen.cellformatter.lang.MSColor;
+import com.github.mygreen.cellformatter.term.TextTerm;
+import com.github.mygreen.cellformatter.tokenizer.Token;
 
 /**
  * {@link CustomFormatterFactory}のテスタ
  * 
- * @version 0.9.2
+ * @version 0.11
  * @since 0.3
  * @author T.TSUCHIE
  *
@@ -142,4 +147,226 @@ public class CustomFormatterFactoryTest {
         assertThat(actual.getCellType(), is(FormatCellType.Number));
         
     }
+    
+    /**
+     * 作成したフォーマッタは固定化され、変更できないこと。
+     * @since 0.11
+     */
+    @Test
+    public void testFreeze() {
+        
+        CustomFormatter formatter = factory.create("[Red]#,##0.0;\\-#,##0.0;\"ゼロ\";@\"様\"");
+        assertThat(formatter.isFrozen(), is(true));
+        assertThat(CustomFormatter.DEFAULT_FORMATTER.isFrozen(), is(true));
+        
+        for(ConditionFormatter conditionFormatter : formatter.getConditionFormatters()) {
+            assertThat(conditionFormatter.isFrozen(), is(true));
+        }
+        
+        try {
+            formatter.addConditionFormatter(new ConditionTextFormatter("@"));
+            fail();
+        } catch(IllegalStateException e) {
+            // 固定化されている
+        }
+        
+        try {
+            formatter.getConditionFormatters().get(0).setColor(MSColor.BLUE);
+            fail();
+        } catch(IllegalStateException e) {
+            // 固定化されている
+        }
+        
+        try {
+            ((ConditionNumberFormatter)formatter.getConditionFormatters().get(0)).getTerms().clear();
+            fail();
+        } catch(UnsupportedOperationException e) {
+            // 固定化されている
+        }
+        
+        // 固定化しても、フォーマットの結果は変わらない
+        assertThat(formatter.format(new NumberCell<Double>(1234.5d, (short)0)).getText(), is("1,234.5"));
+        assertThat(formatter.format(new NumberCell<Double>(-1234.5d, (short)0)).getText(), is("-1,234.5"));
+        assertThat(formatter.format(new NumberCell<Double>(0.0d, (short)0)).getText(), is("ゼロ"));
+        assertThat(formatter.format(new TextCell("山田", (short)0)).getText(), is("山田様"));
+        
+        // 2回目以降は何もしない
+        formatter.freeze();
+        assertThat(formatter.isFrozen(), is(true));
+    }
+    
+    /**
+     * 固定化したフォーマッタのセルの種類ごとの振り分けが、書式を順に判定した結果と一致すること。
+     * @since 0.11
+     */
+    @Test
+    public void testSectionDispatch() {
+        
+        final String[] patterns = {
+                "[Red]#,##0.0;\\-#,##0.0;\"ゼロ\";@\"様\"",
+                "[>=100]\"大\";[<0]\"負\";0",
+                "0.00;@\"様\"",
+                "yyyy/m/d;@",
+                "[<=1]\"1日以内\";yyyy/m/d",
+                "[h]:mm:ss",
+                "0.0",
+        };
+        
+        final CommonCell[] cells = {
+                new NumberCell<Double>(1234.5d, (short)0),
+                new NumberCell<Double>(-1234.5d, (short)0),
+                new NumberCell<Double>(0.0d, (short)0),
+                new NumberCell<Double>(0.5d, (short)0),
+                new NumberCell<Double>(43000.25d, (short)0),
+                new DateCell(Timestamp.valueOf("2012-02-29 13:01:40"), (short)0),
+                new DateCell(Timestamp.valueOf("1900-01-01 12:00:00"), (short)0),
+                new TextCell("山田", (short)0),
+                new BooleanCell(true, (short)0),
+        };
+        
+        for(String pattern : patterns) {
+            final CustomFormatter frozen = factory.create(pattern);
+            
+            // 同じ書式を固定化せずに組み立てる
+            final CustomFormatter unfrozen = new CustomFormatter(pattern);
+            for(ConditionFormatter conditionFormatter : frozen.getConditionFormatters()) {
+                unfrozen.addConditionFormatter(conditionFormatter);
+            }
+            assertThat(unfrozen.isFrozen(), is(false));
+            
+            for(CommonCell cell : cells) {
+                assertThat(pattern, formatForTest(frozen, cell), is(formatForTest(unfrozen, cell)));
+            }
+        }
+    }
+    
+    /**
+     * 比較用に、フォーマットした結果を文字列として取得する。
+     * @return 一致する書式がない場合は、例外のクラス名を返す。
+     */
+    private String formatForTest(final CustomFormatter formatter, final CommonCell cell) {
+        try {
+            final CellFormatResult result = formatter.format(cell);
+            return result.getText() + "/" + result.getCellType() + "/" + result.getTextColor();
+        } catch(NoMatchConditionFormatterException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+    
+    /**
+     * 数値と文字列の両方に該当するセルは、書式の順に判定されること。
+     * @since 0.11
+     */
+    @Test
+    public void testSectionDispatch_mixedCell() {
+        
+        final CommonCell cell = new NumberCell<Double>(-1.0d, (short)0) {
+            
+            @Override
+            public boolean isText() {
+                return true;
+            }
+            
+            @Override
+            public String getTextCellValue() {
+                return "値";
+            }
+        };
+        
+        // 文字列の書式より前の数値の書式に一致する場合
+        assertThat(factory.create("[<0]\"負\";@\"様\"").format(cell).getText(), is("負"));
+        
+        // 文字列の書式が先に現れる場合
+        assertThat(factory.create("@\"様\";[<0]\"負\"").format(cell).getText(), is("値様"));
+        
+        // 数値の書式に一致しない場合
+        assertThat(factory.create("[>0]\"正\";@\"様\"").format(cell).getText(), is("値様"));
+    }
+    
+    /**
+     * 標準以外の条件付きのフォーマッタを含む場合、数値を直接フォーマットしても、
+     * セルをフォーマットした場合と同じ書式が選ばれること。
+     * @since 0.11
+     */
+    @Test
+    public void testCustomSection() throws Exception {
+        
+        // 100以上の値に一致する独自の書式
+        final ConditionFormatter customSection = new ConditionFormatter("\"大\"") {
+            
+            @Override
+            public FormatterType getType() {
+                return FormatterType.Number;
+            }
+            
+            @Override
+            public boolean isMatch(final CommonCell cell) {
+                return cell.isNumber() && cell.getNumberCellValue() >= 100.0d;
+            }
+            
+            @Override
+            public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale) {
+                final CellFormatResult result = new CellFormatResult();
+                result.setValue(cell.getNumberCellValue());
+                result.setText("大");
+                result.setCellType(FormatCellType.Number);
+                return result;
+            }
+        };
+        
+        final CustomFormatter formatter = new CustomFormatter("\"大\";0.0");
+        formatter.addConditionFormatter(customSection);
+        for(ConditionFormatter conditionFormatter : factory.create("0.0").getConditionFormatters()) {
+            formatter.addConditionFormatter(conditionFormatter);
+        }
+        
+        assertThat(formatter.getNumberFormatterSections(), is(nullValue()));
+        
+        final CompiledFormat compiled = new CompiledFormat(formatter, (short)-1, "\"大\";0.0", Locale.JAPANESE);
+        final double[] values = {1234.5d, 12.3d};
+        final String[] columns = new String[values.length];
+        compiled.formatColumn(values, columns);
+        
+        for(int i=0; i < values.length; i++) {
+            final double value = values[i];
+            final String expected = formatter.format(new NumberCell<Double>(value, (short)0), Locale.JAPANESE).getText();
+            
+            assertThat(formatter.format(value, Locale.JAPANESE).getText(), is(expected));
+            assertThat(formatter.formatAsString(value, Locale.JAPANESE), is(expected));
+            
+            final StringBuilder out = new StringBuilder();
+            formatter.formatTo(value, Locale.JAPANESE, out);
+            assertThat(out.toString(), is(expected));
+            
+            assertThat(compiled.formatAsString(value), is(expected));
+            assertThat(columns[i], is(expected));
+        }
+        
+        assertThat(formatter.formatAsString(1234.5d, Locale.JAPANESE), is("大"));
+        assertThat(formatter.formatAsString(12.3d, Locale.JAPANESE), is("12.3"));
+    }
+    
+    /**
+     * 固定化していないフォーマッタは、組み立てながら利用できること。
+     * @since 0.11
+     */
+    @Test
+    public void testNotFrozen() {
+        
+        final ConditionTextFormatter textFormatter = new ConditionTextFormatter("@");
+        textFormatter.setOperator(ConditionOperator.ALL);
+        textFormatter.addTerm(TextTerm.atMark(Token.SYMBOL_AT_MARK));
+        
+        final CustomFormatter formatter = new CustomFormatter("@");
+        formatter.addConditionFormatter(textFormatter);
+        assertThat(formatter.isFrozen(), is(false));
+        assertThat(formatter.format(new TextCell("abc", "@")).getText(), is("abc"));
+        
+        textFormatter.addTerm(TextTerm.atMark(Token.SYMBOL_AT_MARK));
+        assertThat(formatter.format(new TextCell("abc", "@")).getText(), is("abcabc"));
+        
+        formatter.freeze();
+        assertThat(textFormatter.isFrozen(), is(true));
+        assertThat(formatter.format(new TextCell("abc", "@")).getText(), is("abcabc"));
+    }
 }
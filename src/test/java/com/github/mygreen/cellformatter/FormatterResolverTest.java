@@ -0,0 +1,604 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * {@link FormatterResolver}のテスタ
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class FormatterResolverTest {
+
+    /**
+     * キャッシュの上限を超えた場合、参照されていない書式から削除されること。
+     */
+    @Test
+    public void testPatternCache_evict() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        resolver.setPatternCacheCapacity(3);
+        assertThat(resolver.getPatternCacheCapacity(), is(3));
+
+        final CellFormatter formatter1 = resolver.resolveFormatter((short)-1, "0.0", true);
+        resolver.resolveFormatter((short)-1, "0.00", true);
+        resolver.resolveFormatter((short)-1, "0.000", true);
+        assertThat(resolver.getPatternCacheSize(), is(3));
+
+        // 参照された書式は残る
+        assertThat(resolver.getFormatter("0.0"), is(sameInstance(formatter1)));
+        resolver.resolveFormatter((short)-1, "0.0000", true);
+
+        assertThat(resolver.getPatternCacheSize(), is(3));
+        assertThat(resolver.canResolve("0.0"), is(true));
+        assertThat(resolver.canResolve("0.00"), is(false));
+        assertThat(resolver.canResolve("0.000"), is(true));
+        assertThat(resolver.canResolve("0.0000"), is(true));
+
+        // 削除された書式は、再度作成される
+        final CellFormatter formatter2 = resolver.resolveFormatter((short)-1, "0.00", true);
+        assertThat(formatter2.format(new NumberCell<Double>(1.5d, "0.00"), Locale.JAPANESE).getText(), is("1.50"));
+        assertThat(resolver.getPatternCacheSize(), is(3));
+    }
+
+    /**
+     * 組み込み書式や明示的に登録した書式は、上限を超えても削除されないこと。
+     */
+    @Test
+    public void testPatternCache_pinned() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        resolver.setPatternCacheCapacity(1);
+
+        final CellFormatter registered = resolver.createFormatter("#,##0");
+        resolver.registerFormatter("#,##0", registered);
+
+        for(int i=1; i <= 10; i++) {
+            resolver.resolveFormatter((short)-1, String.format("0.%0" + i + "d", 0), true);
+        }
+
+        assertThat(resolver.getPatternCacheSize(), is(1));
+        assertThat(resolver.getFormatter("#,##0"), is(sameInstance(registered)));
+        assertThat(resolver.canResolve((short)14), is(true));
+
+        // 組み込み書式は、キャッシュに登録されない
+        final CellFormatter builtin = resolver.getFormatter((short)14);
+        assertThat(resolver.resolveFormatter((short)14, "m/d/yy", true), is(sameInstance(builtin)));
+        assertThat(resolver.getPatternCacheSize(), is(1));
+    }
+
+    /**
+     * 上限を変更した場合
+     */
+    @Test
+    public void testPatternCache_capacity() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        assertThat(resolver.getPatternCacheCapacity(), is(FormatterResolver.DEFAULT_PATTERN_CACHE_CAPACITY));
+
+        for(int i=0; i < 10; i++) {
+            resolver.resolveFormatter((short)-1, "0\"" + i + "\"", true);
+        }
+        assertThat(resolver.getPatternCacheSize(), is(10));
+
+        // 上限を小さくすると、超えた分が削除される
+        resolver.setPatternCacheCapacity(4);
+        assertThat(resolver.getPatternCacheSize(), is(4));
+
+        // 0の場合はキャッシュしない
+        resolver.setPatternCacheCapacity(0);
+        resolver.resolveFormatter((short)-1, "0.0", true);
+        assertThat(resolver.getPatternCacheSize(), is(0));
+        assertThat(resolver.canResolve("0.0"), is(false));
+
+        // キャッシュしない指定の場合
+        resolver.setPatternCacheCapacity(4);
+        resolver.resolveFormatter((short)-1, "0.0", false);
+        assertThat(resolver.canResolve("0.0"), is(false));
+
+        resolver.resolveFormatter((short)-1, "0.0", true);
+        assertThat(resolver.canResolve("0.0"), is(true));
+
+        resolver.clearFormat();
+        assertThat(resolver.getPatternCacheSize(), is(0));
+    }
+
+    /**
+     * 組み込み書式のフォーマッタは、インスタンス間で共有されること。
+     */
+    @Test
+    public void testDefaultFormat_shared() {
+
+        FormatterResolver resolver1 = new FormatterResolver();
+        FormatterResolver resolver2 = new FormatterResolver();
+
+        for(short i=0; i <= 58; i++) {
+            assertThat(resolver2.canResolve(i), is(resolver1.canResolve(i)));
+            assertThat(resolver2.getFormatter(i), is(sameInstance(resolver1.getFormatter(i))));
+        }
+
+        // 別のフォーマッタを登録しても、他のインスタンスには影響しない
+        final CellFormatter formatter = resolver1.createFormatter("0.0");
+        resolver1.registerFormatter((short)14, formatter);
+        assertThat(resolver1.getFormatter((short)14), is(sameInstance(formatter)));
+        assertThat(resolver2.getFormatter((short)14), is(not(sameInstance(formatter))));
+        assertThat(new FormatterResolver().getFormatter((short)14), is(sameInstance(resolver2.getFormatter((short)14))));
+
+        // 共有しているロケールごとのフォーマッタは、変更できない
+        final CellFormatter shared = resolver2.getFormatter((short)14);
+        assertThat(shared, is(instanceOf(LocaleSwitchFormatter.class)));
+        assertThat(((LocaleSwitchFormatter) shared).isFrozen(), is(true));
+        try {
+            ((LocaleSwitchFormatter) shared).register(formatter, Locale.FRENCH);
+            fail();
+        } catch(IllegalStateException e) {
+            // 固定化されている
+        }
+        assertThat(shared.getPattern(Locale.FRENCH), is(not("0.0")));
+
+        // 複製したインスタンスには登録でき、共有しているインスタンスには影響しない
+        final LocaleSwitchFormatter copied = ((LocaleSwitchFormatter) shared).copy();
+        assertThat(copied.isFrozen(), is(false));
+        assertThat(copied.getPattern(Locale.JAPANESE), is(shared.getPattern(Locale.JAPANESE)));
+        copied.register(formatter, Locale.FRENCH);
+        final FormatterResolver resolver3 = new FormatterResolver();
+        resolver3.registerFormatter((short)14, copied);
+        assertThat(resolver3.getFormatter((short)14).getPattern(Locale.FRENCH), is("0.0"));
+        assertThat(shared.getPattern(Locale.FRENCH), is(not("0.0")));
+
+        // キャッシュを初期化しても、再登録できる
+        resolver1.clearFormat();
+        assertThat(resolver1.canResolve((short)14), is(false));
+        resolver1.registerDefaultFormat();
+        assertThat(resolver1.getFormatter((short)14), is(sameInstance(resolver2.getFormatter((short)14))));
+    }
+
+    /**
+     * 複数のスレッドから同時に組み込み書式を参照した場合も、同じフォーマッタを取得すること。
+     */
+    @Test
+    public void testDefaultFormat_concurrent() throws Exception {
+
+        final int threadCount = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<CellFormatter[]>> futures = new ArrayList<>();
+            for(int t=0; t < threadCount; t++) {
+                futures.add(executor.submit(new Callable<CellFormatter[]>() {
+
+                    @Override
+                    public CellFormatter[] call() throws Exception {
+                        start.await();
+                        final FormatterResolver resolver = new FormatterResolver();
+                        final CellFormatter[] formatters = new CellFormatter[FormatterResolver.MAX_BUILTIN_FORMAT_INDEX + 1];
+                        for(int i=formatters.length-1; i >= 0; i--) {
+                            formatters[i] = resolver.getFormatter((short)i);
+                        }
+                        return formatters;
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            final CellFormatter[] expected = futures.get(0).get();
+            for(Future<CellFormatter[]> future : futures) {
+                final CellFormatter[] actual = future.get();
+                for(int i=0; i < expected.length; i++) {
+                    assertThat(actual[i], is(sameInstance(expected[i])));
+                }
+            }
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 特別な書式は、書式パターンから参照できること。
+     */
+    @Test
+    public void testDefaultFormat_special() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        final String pattern = FormatterResolver.getDefaultFormatPattern("F800");
+        assertThat(pattern, is(notNullValue()));
+        assertThat(resolver.canResolve(pattern), is(true));
+        assertThat(resolver.resolveFormatter((short)-1, pattern, true), is(sameInstance(resolver.getFormatter(pattern))));
+        assertThat(resolver.getPatternCacheSize(), is(0));
+
+        resolver.clearFormat();
+        assertThat(resolver.canResolve(pattern), is(false));
+    }
+
+    /**
+     * フォーマッタの作成をオーバーライドした場合は、組み込み書式を共有しないこと。
+     */
+    @Test
+    public void testDefaultFormat_overridden() {
+
+        final int[] count = new int[1];
+        FormatterResolver resolver = new FormatterResolver() {
+
+            @Override
+            public CellFormatter createFormatter(final String formatPattern) {
+                count[0]++;
+                return super.createFormatter(formatPattern);
+            }
+        };
+
+        assertThat(count[0] > 0, is(true));
+        assertThat(resolver.getFormatter((short)14), is(not(sameInstance(new FormatterResolver().getFormatter((short)14)))));
+        assertThat(resolver.getFormatter((short)14).format(new NumberCell<Double>(43000.0d, (short)14), Locale.JAPANESE).getText(),
+                is(new FormatterResolver().getFormatter((short)14).format(new NumberCell<Double>(43000.0d, (short)14), Locale.JAPANESE).getText()));
+    }
+
+    /**
+     * 同じ書式パターンを同時に要求した場合、フォーマッタの作成は1度だけ行われること。
+     */
+    @Test
+    public void testGetOrCompile_concurrent() throws Exception {
+
+        final AtomicInteger count = new AtomicInteger();
+        final FormatterResolver resolver = new FormatterResolver() {
+
+            @Override
+            public CellFormatter createFormatter(final String formatPattern) {
+                count.incrementAndGet();
+                try {
+                    Thread.sleep(50L);
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.createFormatter(formatPattern);
+            }
+        };
+        count.set(0);
+
+        final int threadCount = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<CellFormatter>> futures = new ArrayList<>();
+            for(int t=0; t < threadCount; t++) {
+                futures.add(executor.submit(new Callable<CellFormatter>() {
+
+                    @Override
+                    public CellFormatter call() throws Exception {
+                        start.await();
+                        return resolver.getOrCompile("#,##0.000");
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            final CellFormatter expected = futures.get(0).get();
+            for(Future<CellFormatter> future : futures) {
+                assertThat(future.get(), is(sameInstance(expected)));
+            }
+
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(count.get(), is(1));
+        assertThat(resolver.getFormatter("#,##0.000"), is(notNullValue()));
+    }
+
+    /**
+     * 異なる書式パターンの作成は、互いに待ち合わせないこと。
+     */
+    @Test
+    public void testGetOrCompile_independentKeys() throws Exception {
+
+        final CountDownLatch compiling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final FormatterResolver resolver = new FormatterResolver() {
+
+            @Override
+            public CellFormatter createFormatter(final String formatPattern) {
+                if("0.0".equals(formatPattern)) {
+                    compiling.countDown();
+                    try {
+                        release.await();
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.createFormatter(formatPattern);
+            }
+        };
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<CellFormatter> blocked = executor.submit(new Callable<CellFormatter>() {
+
+                @Override
+                public CellFormatter call() throws Exception {
+                    return resolver.getOrCompile("0.0");
+                }
+            });
+
+            assertThat(compiling.await(10L, TimeUnit.SECONDS), is(true));
+
+            // 作成中の書式とは別の書式は、待たずに作成できる
+            assertThat(resolver.getOrCompile("0.00"), is(notNullValue()));
+            assertThat(blocked.isDone(), is(false));
+
+            release.countDown();
+            assertThat(blocked.get(), is(sameInstance(resolver.getFormatter("0.0"))));
+
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 作成を待っていたスレッドには、作成したスレッドとは別の例外のインスタンスがスローされること。
+     */
+    @Test
+    public void testGetOrCompile_errorWhileWaiting() throws Exception {
+
+        final CountDownLatch compiling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final FormatterResolver resolver = new FormatterResolver() {
+
+            @Override
+            public CellFormatter createFormatter(final String formatPattern) {
+                if("0;0;0;0;0".equals(formatPattern)) {
+                    compiling.countDown();
+                    try {
+                        release.await();
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.createFormatter(formatPattern);
+            }
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Callable<Throwable> compileTask = new Callable<Throwable>() {
+
+                @Override
+                public Throwable call() throws Exception {
+                    try {
+                        resolver.getOrCompile("0;0;0;0;0");
+                        return null;
+                    } catch(CustomFormatterParseException e) {
+                        return e;
+                    }
+                }
+            };
+
+            final Future<Throwable> owner = executor.submit(compileTask);
+            assertThat(compiling.await(10L, TimeUnit.SECONDS), is(true));
+
+            final Future<Throwable> waiter = executor.submit(compileTask);
+            Thread.sleep(100L);
+            release.countDown();
+
+            final Throwable ownerError = owner.get();
+            final Throwable waiterError = waiter.get();
+            assertThat(ownerError, is(notNullValue()));
+            assertThat(waiterError, is(notNullValue()));
+            assertThat(waiterError, is(not(sameInstance(ownerError))));
+            assertThat(((CustomFormatterParseException) waiterError).getPattern(), is("0;0;0;0;0"));
+            assertThat(waiterError.getMessage(), is(ownerError.getMessage()));
+
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 書式の作成に失敗した場合、例外がスローされ、キャッシュされないこと。
+     */
+    @Test
+    public void testGetOrCompile_error() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        try {
+            resolver.getOrCompile("0;0;0;0;0");
+            fail();
+
+        } catch(CustomFormatterParseException e) {
+            // 作成に失敗した書式はキャッシュされない
+            assertThat(resolver.canResolve("0;0;0;0;0"), is(false));
+        }
+    }
+
+    /**
+     * 作成に失敗した書式パターンは、再度解析されないこと。
+     */
+    @Test
+    public void testParseFailure_cached() {
+
+        final AtomicInteger count = new AtomicInteger();
+        final FormatterResolver resolver = new FormatterResolver() {
+
+            @Override
+            public CellFormatter createFormatter(final String formatPattern) {
+                count.incrementAndGet();
+                return super.createFormatter(formatPattern);
+            }
+        };
+        count.set(0);
+        assertThat(resolver.getFallbackFormatter(), is(nullValue()));
+
+        for(int i=0; i < 3; i++) {
+            try {
+                resolver.resolveFormatter((short)-1, "0;0;0;0;0", true);
+                fail();
+
+            } catch(CustomFormatterParseException e) {
+                assertThat(e.getPattern(), is("0;0;0;0;0"));
+            }
+        }
+
+        assertThat(count.get(), is(1));
+
+        // キャッシュに登録しない場合も、再度解析しない
+        try {
+            resolver.resolveFormatter((short)-1, "0;0;0;0;0", false);
+            fail();
+
+        } catch(CustomFormatterParseException e) {
+            assertThat(e.getPattern(), is("0;0;0;0;0"));
+        }
+
+        resolver.setFallbackFormatter(CustomFormatter.DEFAULT_FORMATTER);
+        assertThat(resolver.resolveFormatter((short)-1, "0;0;0;0;0", false), is(sameInstance((CellFormatter)CustomFormatter.DEFAULT_FORMATTER)));
+        assertThat(count.get(), is(1));
+        resolver.setFallbackFormatter(null);
+
+        // キャッシュを初期化すると、再度解析する
+        resolver.clearFormat();
+        try {
+            resolver.getOrCompile("0;0;0;0;0");
+            fail();
+
+        } catch(CustomFormatterParseException e) {
+            assertThat(count.get(), is(2));
+        }
+    }
+
+    /**
+     * 代わりに利用するフォーマッタを設定した場合
+     */
+    @Test
+    public void testParseFailure_fallback() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        resolver.setFallbackFormatter(CustomFormatter.DEFAULT_FORMATTER);
+
+        assertThat(resolver.getOrCompile("0;0;0;0;0"), is(sameInstance((CellFormatter)CustomFormatter.DEFAULT_FORMATTER)));
+        assertThat(resolver.getOrCompile("0;0;0;0;0"), is(sameInstance((CellFormatter)CustomFormatter.DEFAULT_FORMATTER)));
+        assertThat(resolver.canResolve("0;0;0;0;0"), is(false));
+
+        // ObjectCellFormatterから利用する場合
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        cellFormatter.setFormatterResolver(resolver);
+        assertThat(cellFormatter.formatAsString("0;0;0;0;0", 1.5d, Locale.JAPANESE), is("1.5"));
+    }
+
+    /**
+     * 失敗した書式パターンを記録する件数の上限を変更した場合
+     */
+    @Test
+    public void testParseFailure_capacity() {
+
+        final AtomicInteger count = new AtomicInteger();
+        final FormatterResolver resolver = new FormatterResolver() {
+
+            @Override
+            public CellFormatter createFormatter(final String formatPattern) {
+                count.incrementAndGet();
+                return super.createFormatter(formatPattern);
+            }
+        };
+        count.set(0);
+        resolver.setFallbackFormatter(CustomFormatter.DEFAULT_FORMATTER);
+        assertThat(resolver.getParseFailureCacheCapacity(), is(FormatterResolver.DEFAULT_PARSE_FAILURE_CACHE_CAPACITY));
+
+        resolver.setParseFailureCacheCapacity(0);
+        resolver.getOrCompile("0;0;0;0;0");
+        resolver.getOrCompile("0;0;0;0;0");
+        assertThat(count.get(), is(2));
+    }
+
+    /**
+     * 記述が異なるが同じ結果になる書式パターンは、フォーマッタを共有すること。
+     */
+    @Test
+    public void testCanonicalPattern_shared() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        resolver.setShareCanonicalPattern(true);
+        assertThat(resolver.isShareCanonicalPattern(), is(true));
+
+        final String[][] equivalents = {
+                {"#,##0\"円\"", "#,##0\\円", "#,##0\"\"\\円"},
+                {"[Red]0.0\"kg\"", "[RED]0.0\\k\\g", "[red]0.0\"k\"\\g"},
+                {"[Color10]0", "[色10]0", "[Color010]0"},
+                {"yyyy\"/\"mm\"/\"dd", "yyyy\\/mm\\/dd"},
+        };
+
+        for(String[] patterns : equivalents) {
+            final CellFormatter expected = resolver.getOrCompile(patterns[0]);
+            for(String pattern : patterns) {
+                final CellFormatter actual = resolver.getOrCompile(pattern);
+                assertThat(pattern, actual, is(sameInstance(expected)));
+
+                // 共有しない場合と、同じ結果になる
+                final CellFormatter created = resolver.createFormatter(pattern);
+                final NumberCell<Double> cell = new NumberCell<Double>(43000.5d, pattern);
+                final CellFormatResult result = actual.format(cell, Locale.JAPANESE);
+                final CellFormatResult createdResult = created.format(cell, Locale.JAPANESE);
+                assertThat(pattern, result.getText(), is(createdResult.getText()));
+                assertThat(pattern, result.getTextColor(), is(createdResult.getTextColor()));
+            }
+        }
+
+        assertThat(resolver.getOrCompile("#,##0"), is(not(sameInstance(resolver.getOrCompile("#,##0\"円\"")))));
+        assertThat(resolver.getOrCompile("[Blue]0"), is(not(sameInstance(resolver.getOrCompile("[Red]0")))));
+        assertThat(resolver.getOrCompile("0\"a\"0"), is(not(sameInstance(resolver.getOrCompile("0\"a0\"")))));
+
+        // 囲まれていない記号は、引用符で囲まれた記号と共有しない
+        assertThat(resolver.getOrCompile("0-"), is(not(sameInstance(resolver.getOrCompile("0\"-\"")))));
+        assertThat(resolver.getOrCompile("# ?/?"), is(not(sameInstance(resolver.getOrCompile("# ?\"/\"?")))));
+    }
+
+    /**
+     * 同じ結果になる書式パターンで、フォーマッタを共有しない場合
+     */
+    @Test
+    public void testCanonicalPattern_disabled() {
+
+        // 初期値は共有しない
+        FormatterResolver resolver = new FormatterResolver();
+        assertThat(resolver.isShareCanonicalPattern(), is(false));
+        assertThat(resolver.getOrCompile("#,##0\\円"), is(not(sameInstance(resolver.getOrCompile("#,##0\"円\"")))));
+        assertThat(resolver.getOrCompile("#,##0\\円").getPattern(), is("#,##0\\円"));
+
+        // 独自の書式の解析を設定した場合
+        resolver = new FormatterResolver();
+        resolver.setShareCanonicalPattern(true);
+        resolver.setCustomFormatterFactory(new CustomFormatterFactory() {
+        });
+        assertThat(resolver.getOrCompile("#,##0\\円"), is(not(sameInstance(resolver.getOrCompile("#,##0\"円\"")))));
+    }
+
+    /**
+     * 上限に負の値を指定した場合
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testPatternCache_negativeCapacity() {
+
+        FormatterResolver resolver = new FormatterResolver();
+        resolver.setPatternCacheCapacity(-1);
+
+        fail();
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.github.mygreen.cellformatter.lang.TestUtils;
+import com.github.mygreen.cellformatter.lang.TestUtils.RowFormatAction;
+
+/**
+ * {@link HSSFStreamingCellFormatter}のテスタ
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class HSSFStreamingCellFormatterTest {
+
+    /**
+     * ワークブックのモデルを利用した{@link POICellFormatter}と結果が一致すること。
+     */
+    @Test
+    public void testCompareWithPOICellFormatter() throws Exception {
+
+        final String[] fileNames = {
+                "cell_format_2000.xls",
+                "cell_format_2000_builtinformat.xls",
+                "cell_format_2010_compatible.xls",
+                "cell_format_2010_custom_compatible.xls",
+                "cell_format_libre.xls",
+        };
+
+        for(String fileName : fileNames) {
+            assertSameAsPOI(new File("src/test/data", fileName), Locale.JAPANESE);
+        }
+    }
+
+    /**
+     * 1904年始まりのワークブックの日時が、{@link POICellFormatter}と一致すること。
+     */
+    @Test
+    public void testDateStart1904() throws Exception {
+        assertSameAsPOI(new File("src/test/data/cell_format_date1904.xls"), Locale.JAPANESE);
+    }
+
+    /**
+     * ストリームから読み込んだ結果がファイルから読み込んだ結果と一致し、ストリームは閉じられないこと。
+     */
+    @Test
+    public void testFormat_inputStream() throws Exception {
+
+        final File file = new File("src/test/data/cell_format_2010_custom_compatible.xls");
+
+        final HSSFStreamingCellFormatter formatter = new HSSFStreamingCellFormatter();
+        final List<String> expected = new ArrayList<>();
+        formatter.format(file, Locale.JAPANESE, new TextCollector(expected, null));
+
+        final boolean[] closed = new boolean[1];
+        final List<String> actual = new ArrayList<>();
+        try(InputStream in = new FilterInputStream(new FileInputStream(file)) {
+                @Override
+                public void close() throws IOException {
+                    closed[0] = true;
+                    super.close();
+                }
+            }) {
+            formatter.format(in, Locale.JAPANESE, new TextCollector(actual, null));
+            assertThat(closed[0], is(false));
+        }
+
+        assertThat(actual.isEmpty(), is(false));
+        assertThat(actual, is(expected));
+    }
+
+    /**
+     * 行とシートの通知順序のテスト
+     */
+    @Test
+    public void testHandlerEvents() throws Exception {
+
+        final List<String> events = new ArrayList<>();
+
+        HSSFStreamingCellFormatter cellFormatter = new HSSFStreamingCellFormatter();
+        cellFormatter.format(new File("src/test/data/cell_format_2010_compatible.xls"), Locale.JAPANESE, new FormattedRowHandler() {
+
+            private int lastRowIndex;
+
+            @Override
+            public void startSheet(int sheetIndex, String sheetName) {
+                events.add("start:" + sheetIndex);
+                lastRowIndex = -1;
+            }
+
+            @Override
+            public void handleRow(FormattedRow row) {
+                assertThat(row.getRowIndex() > lastRowIndex, is(true));
+                lastRowIndex = row.getRowIndex();
+
+                for(int i=0; i < row.getCellCount(); i++) {
+                    assertThat(row.getResultByColumn(row.getColumnIndex(i)), is(sameInstance(row.getResult(i))));
+                }
+            }
+
+            @Override
+            public void endSheet(int sheetIndex, String sheetName) {
+                events.add("end:" + sheetIndex);
+            }
+        });
+
+        assertThat(events.isEmpty(), is(false));
+        for(int i=0; i < events.size() / 2; i++) {
+            assertThat(events.get(i*2), is("start:" + i));
+            assertThat(events.get(i*2+1), is("end:" + i));
+        }
+    }
+
+    /**
+     * 列を指定した場合、対象の列のみが全ての列を処理した結果と一致すること。
+     * @since 0.11
+     */
+    @Test
+    public void testColumnProjection() throws Exception {
+
+        final File file = new File("src/test/data/cell_format_2010_custom_compatible.xls");
+
+        final HSSFStreamingCellFormatter formatter = new HSSFStreamingCellFormatter();
+        final List<String> expected = new ArrayList<>();
+        formatter.format(file, Locale.JAPANESE, new TextCollector(expected, null));
+
+        final BitSet columns = new BitSet();
+        columns.set(1);
+        columns.set(3);
+        formatter.setColumnProjection(columns);
+
+        final List<String> actual = new ArrayList<>();
+        formatter.format(file, Locale.JAPANESE, new TextCollector(actual, columns));
+
+        final List<String> filtered = new ArrayList<>();
+        for(String text : expected) {
+            final int column = Integer.parseInt(text.substring(0, text.indexOf(':')).split(",")[2]);
+            if(columns.get(column)) {
+                filtered.add(text);
+            }
+        }
+
+        assertThat(actual.isEmpty(), is(false));
+        assertThat(actual, is(filtered));
+    }
+
+    /**
+     * フォーマットしたセルの位置と文字列を収集するハンドラ。
+     */
+    private static class TextCollector implements FormattedRowHandler {
+
+        private final List<String> texts;
+
+        private final BitSet columns;
+
+        private int sheetIndex;
+
+        private TextCollector(final List<String> texts, final BitSet columns) {
+            this.texts = texts;
+            this.columns = columns;
+        }
+
+        @Override
+        public void startSheet(int sheetIndex, String sheetName) {
+            this.sheetIndex = sheetIndex;
+        }
+
+        @Override
+        public void handleRow(FormattedRow row) {
+            for(int i=0; i < row.getCellCount(); i++) {
+                if(columns != null) {
+                    assertThat(columns.get(row.getColumnIndex(i)), is(true));
+                }
+                texts.add(sheetIndex + "," + row.getRowIndex() + "," + row.getColumnIndex(i) + ":" + row.getResult(i).getText());
+            }
+        }
+
+        @Override
+        public void endSheet(int sheetIndex, String sheetName) {
+        }
+
+    }
+
+    private void assertSameAsPOI(final File file, final Locale locale) throws Exception {
+
+        final POICellFormatter poiFormatter = new POICellFormatter();
+        poiFormatter.setConsiderMergedCell(false);
+
+        final HSSFStreamingCellFormatter streamingFormatter = new HSSFStreamingCellFormatter();
+        TestUtils.assertSameAsPOI(file, locale, poiFormatter, new RowFormatAction() {
+
+            @Override
+            public void format(File file, Locale locale, FormattedRowHandler handler) throws Exception {
+                streamingFormatter.format(file, locale, handler);
+            }
+        });
+    }
+
+}
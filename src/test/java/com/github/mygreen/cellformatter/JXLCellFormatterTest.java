@@ -212,6 +212,56 @@ public class JXLCellFormatterTest {
 
     }
 
+    /**
+     * ワークブック、シート単位でのフォーマット
+     * @since 0.11
+     */
+    @Test
+    public void testFormatWorkbook() throws Exception {
+
+        File file = new File("src/test/data/cell_format_2010_custom_compatible.xls");
+        JXLCellFormatter cellFormatter = new JXLCellFormatter();
+
+        try(InputStream in = new FileInputStream(file)) {
+            final WorkbookSettings settings = new WorkbookSettings();
+            settings.setSuppressWarnings(true);
+            settings.setGCDisabled(true);
+            settings.setEncoding("ISO8859_1");
+            settings.setLocale(Locale.JAPANESE);
+
+            final Workbook workbook = Workbook.getWorkbook(in, settings);
+            final boolean startDate1904 = JXLUtils.isDateStart1904(workbook);
+
+            final List<SheetFormatResult> results = cellFormatter.formatWorkbook(workbook, Locale.JAPANESE);
+            assertThat(results.size(), is(workbook.getNumberOfSheets()));
+
+            int count = 0;
+            for(SheetFormatResult sheetResult : results) {
+                final Sheet sheet = workbook.getSheet(sheetResult.getSheetIndex());
+                assertThat(sheetResult.getSheetName(), is(sheet.getName()));
+
+                for(FormattedRow row : sheetResult.getRows()) {
+                    for(int i=0; i < row.getCellCount(); i++) {
+                        final Cell cell = sheet.getCell(row.getColumnIndex(i), row.getRowIndex());
+                        assertThat(row.getResult(i).getText(), is(cellFormatter.formatAsString(cell, Locale.JAPANESE, startDate1904)));
+                        count++;
+                    }
+                }
+            }
+            assertThat(count > 0, is(true));
+
+            // 行の範囲を指定する場合
+            final Sheet sheet = workbook.getSheet(0);
+            final List<FormattedRow> rows = cellFormatter.formatSheet(sheet, 1, 3, Locale.JAPANESE, startDate1904);
+            for(FormattedRow row : rows) {
+                assertThat(row.getRowIndex() >= 1 && row.getRowIndex() <= 3, is(true));
+            }
+
+            workbook.close();
+        }
+
+    }
+
     @Test
     public void testFormatExcel2010_compatible() {
 
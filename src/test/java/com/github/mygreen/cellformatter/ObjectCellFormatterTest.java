@@ -5,7 +5,12 @@ import static org.junit.Assert.*;
 import static com.github.mygreen.cellformatter.lang.TestUtils.*;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
 
 import org.junit.Test;
 
@@ -103,6 +108,94 @@ public class ObjectCellFormatterTest {
         
     }
     
+    /**
+     * プリミティブ型の数値を直接フォーマットする場合
+     * @since 0.11
+     */
+    @Test
+    public void test_format_primitive() throws Exception {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        
+        CellFormatResult result = cellFormatter.format("#,##0.0_);[Red]\\(#,##0.0\\)", -1234.5d);
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(result.getText(), is("(1,234.5)"));
+        assertThat(result.getTextColor(), is(MSColor.RED));
+        assertThat(result.getSectionPattern(), is("[Red]\\(#,##0.0\\)"));
+        assertThat(result.getValueAsDoulbe(), is(-1234.5));
+        
+        assertThat(cellFormatter.formatAsString("#,##0", 1234567L), is("1,234,567"));
+        assertThat(cellFormatter.format("0.00", 12L, Locale.JAPANESE).getText(), is("12.00"));
+        
+        StringBuilder out = new StringBuilder();
+        cellFormatter.formatTo(out, "#,##0", 1234.0d);
+        out.append(',');
+        cellFormatter.formatTo(out, "0.0%", 0.125d, Locale.JAPANESE);
+        assertThat(out.toString(), is("1,234,12.5%"));
+        
+        // セルを経由した場合と同じ結果になること
+        final String[] patterns = {"General", "0.000E+00", "[>=100]\"大\";[<0]\"負\";0", "# ?/?", "yyyy/m/d", "0.0;@"};
+        final double[] values = {0.0d, 1.5d, -2.25d, 123.456d, 43000.5d};
+        for(String pattern : patterns) {
+            for(double value : values) {
+                CellFormatResult expected = cellFormatter.format(new NumberCell<Double>(value, pattern), Locale.JAPANESE);
+                CellFormatResult actual = cellFormatter.format(pattern, value, Locale.JAPANESE);
+                assertThat(actual.getText(), is(expected.getText()));
+                assertThat(actual.getCellType(), is(expected.getCellType()));
+                assertThat(actual.getSectionPattern(), is(expected.getSectionPattern()));
+                assertThat(cellFormatter.formatAsString(pattern, value, Locale.JAPANESE), is(expected.getText()));
+            }
+        }
+        
+    }
+    
+    /**
+     * 出力先に直接追加した結果が、{@link CellFormatter#format(CommonCell, Locale)}の結果と一致すること。
+     * @since 0.11
+     */
+    @Test
+    public void test_formatTo() throws Exception {
+        
+        final FormatterResolver resolver = new ObjectCellFormatter().getFormatterResolver();
+        
+        final String[] patterns = {"General", "#,##0.0_);[Red]\\(#,##0.0\\)", "[>=100]\"大\";[<0]\"負\";0",
+                "[DBNum1]General", "[DBNum3][$-411]#,##0", "[$-411]ggge\"年\"m\"月\"d\"日\";@", "[DBNum1][$-411]yyyy\"年\"m\"月\"",
+                "\"接頭語：\"@", "0.0;-0.0;\"ゼロ\";\"文字:\"@"};
+        
+        final List<ObjectCell<?>> cells = new ArrayList<>();
+        for(String pattern : patterns) {
+            cells.add(new NumberCell<Double>(1234.5d, pattern));
+            cells.add(new NumberCell<Double>(-12.0d, pattern));
+            cells.add(new NumberCell<Double>(0.0d, pattern));
+            cells.add(new DateCell(Timestamp.valueOf("2012-02-29 13:01:40"), pattern));
+            cells.add(new TextCell("今日", pattern));
+            cells.add(new BooleanCell(true, pattern));
+        }
+        
+        for(ObjectCell<?> cell : cells) {
+            final CellFormatter formatter = resolver.createFormatter(cell.getFormatPattern());
+            
+            final String expected;
+            try {
+                expected = formatter.format(cell, Locale.JAPANESE).getText();
+            } catch(NoMatchConditionFormatterException e) {
+                // 書式に一致しない場合は、同じく例外となること
+                try {
+                    formatter.formatTo(cell, Locale.JAPANESE, new StringBuilder());
+                    fail();
+                } catch(NoMatchConditionFormatterException expectedException) {
+                }
+                continue;
+            }
+            
+            final StringBuilder out = new StringBuilder("<");
+            formatter.formatTo(cell, Locale.JAPANESE, out);
+            
+            assertThat(cell.getFormatPattern(), out.toString(), is("<" + expected));
+        }
+        
+    }
+    
     @Test
     public void test_format_date() {
         
@@ -120,6 +213,35 @@ public class ObjectCellFormatterTest {
         
     }
     
+    /**
+     * {@link Calendar}の場合、カレンダーのタイムゾーンの日時でフォーマットされること。
+     * @since 0.11
+     */
+    @Test
+    public void test_format_calendar() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        
+        final String pattern = "[$-411]ggge\"年\"m\"月\"d\"日\"\\ h:mm\\ AM/PM;@";
+        for(String zoneId : new String[]{"GMT", "America/New_York", "Asia/Tokyo"}) {
+            Calendar cal = Calendar.getInstance(TimeZone.getTimeZone(zoneId));
+            cal.clear();
+            cal.set(2012, Calendar.FEBRUARY, 29, 13, 1, 40);
+            
+            CellFormatResult result = cellFormatter.format(pattern, cal);
+            assertThat(result.getCellType(), is(FormatCellType.Date));
+            assertThat(result.getText(), is("平成24年2月29日 1:01 午後"));
+        }
+        
+        // 日時のシリアル値
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"));
+        cal.clear();
+        cal.set(2017, Calendar.JULY, 1, 12, 0, 0);
+        assertThat(cellFormatter.formatAsString("0.0", cal, Locale.JAPANESE), is("42917.5"));
+        assertThat(cellFormatter.compile("yyyy/mm/dd hh:mm").formatAsString(cal), is("2017/07/01 12:00"));
+        
+    }
+    
     @Test
     public void test_format_boolean() {
         
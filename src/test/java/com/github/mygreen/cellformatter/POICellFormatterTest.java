@@ -8,8 +8,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -17,6 +19,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -26,7 +29,9 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Test;
 
 import com.github.mygreen.cellformatter.lang.MSColor;
@@ -267,6 +272,105 @@ public class POICellFormatterTest {
 
     }
 
+    /**
+     * 結合セルのテスト - 多数の結合領域がある場合
+     * @since 0.11
+     */
+    @Test
+    public void testMergedCell_manyRegions() throws Exception {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+
+        try(Workbook workbook = new HSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+
+            // 2行x3列の結合領域を作成し、右下のセルに値を設定する。
+            for(int i=0; i < 200; i++) {
+                final int firstRow = i * 2;
+                sheet.addMergedRegion(new CellRangeAddress(firstRow, firstRow + 1, 0, 2));
+
+                for(int r=firstRow; r <= firstRow + 1; r++) {
+                    Row row = sheet.createRow(r);
+                    for(int c=0; c <= 2; c++) {
+                        row.createCell(c);
+                    }
+                }
+                sheet.getRow(firstRow + 1).getCell(2).setCellValue("value" + i);
+            }
+
+            assertThat(cellFormatter.formatAsString(getCell(sheet, "A1")), is("value0"));
+            assertThat(cellFormatter.formatAsString(getCell(sheet, "B2")), is("value0"));
+            assertThat(cellFormatter.formatAsString(getCell(sheet, "C100")), is("value49"));
+            assertThat(cellFormatter.formatAsString(getCell(sheet, "A399")), is("value199"));
+
+            // 結合領域外のセル
+            Cell outerCell = sheet.getRow(0).createCell(3);
+            assertThat(cellFormatter.formatAsString(outerCell), is(""));
+
+            // 別のシートと交互に参照しても、シートごとの索引を利用する
+            Sheet otherSheet = workbook.createSheet();
+            otherSheet.addMergedRegion(new CellRangeAddress(0, 1, 0, 2));
+            for(int r=0; r <= 1; r++) {
+                Row row = otherSheet.createRow(r);
+                for(int c=0; c <= 2; c++) {
+                    row.createCell(c);
+                }
+            }
+            otherSheet.getRow(0).getCell(0).setCellValue("other");
+            assertThat(cellFormatter.formatAsString(getCell(otherSheet, "B2")), is("other"));
+            assertThat(cellFormatter.formatAsString(getCell(sheet, "B2")), is("value0"));
+            assertThat(cellFormatter.formatAsString(getCell(otherSheet, "C1")), is("other"));
+            assertThat(cellFormatter.formatRow(otherSheet.getRow(1), 0, 2, null)[1].getText(), is("other"));
+
+            // 結合領域を変更した場合
+            sheet.getRow(0).getCell(0).setCellValue("changed");
+            cellFormatter.clearMergedRegionCache(sheet);
+            assertThat(cellFormatter.formatAsString(getCell(sheet, "B2")), is("changed"));
+        }
+
+    }
+
+    /**
+     * スタイルごとのフォーマッタのキャッシュのテスト
+     * @since 0.11
+     */
+    @Test
+    public void testStyleFormatterCache() throws Exception {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+
+        try(Workbook workbook = new HSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            Row row = sheet.createRow(0);
+
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat("#,##0.0"));
+
+            Cell cell1 = row.createCell(0);
+            cell1.setCellValue(1234.56);
+            cell1.setCellStyle(style);
+
+            Cell cell2 = row.createCell(1);
+            cell2.setCellValue(-1);
+            cell2.setCellStyle(style);
+
+            assertThat(cellFormatter.formatAsString(cell1), is("1,234.6"));
+            assertThat(cellFormatter.formatAsString(cell2), is("-1.0"));
+
+            // 後から追加したスタイル
+            CellStyle style2 = workbook.createCellStyle();
+            style2.setDataFormat(workbook.createDataFormat().getFormat("0.000"));
+            cell2.setCellStyle(style2);
+            assertThat(cellFormatter.formatAsString(cell2), is("-1.000"));
+
+            // スタイルの書式を変更した場合
+            style.setDataFormat(workbook.createDataFormat().getFormat("0"));
+            cellFormatter.clearStyleFormatterCache();
+            assertThat(cellFormatter.formatAsString(cell1), is("1235"));
+        }
+
+    }
+
     private Cell getCell(final Sheet sheet, final String address) {
 
         final CellReference ref = new CellReference(address.toUpperCase());
@@ -340,6 +444,232 @@ public class POICellFormatterTest {
 
     }
 
+    /**
+     * 数式の評価結果のキャッシュのテスト
+     * @since 0.11
+     */
+    @Test
+    public void testFormulaEvaluationCache() throws Exception {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        cellFormatter.setReuseFormulaEvaluator(true);
+
+        try(Workbook workbook = new HSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            Row row = sheet.createRow(0);
+            Cell valueCell = row.createCell(0);
+            valueCell.setCellValue(1);
+
+            Cell formulaCell = row.createCell(1);
+            formulaCell.setCellFormula("A1*2");
+
+            assertThat(cellFormatter.formatAsString(formulaCell), is("2"));
+
+            // 同じワークブックに対しては、同じインスタンスを再利用する
+            FormulaEvaluatorRegistry registry = cellFormatter.getFormulaEvaluatorRegistry();
+            assertThat(registry.getFormulaEvaluator(workbook), is(sameInstance(registry.getFormulaEvaluator(workbook))));
+
+            // 値を変更して通知する
+            valueCell.setCellValue(5);
+            cellFormatter.notifyUpdateCell(valueCell);
+            assertThat(cellFormatter.formatAsString(formulaCell), is("10"));
+
+            // キャッシュを破棄する
+            valueCell.setCellValue(7);
+            cellFormatter.clearEvaluationCache(workbook);
+            assertThat(cellFormatter.formatAsString(formulaCell), is("14"));
+
+            // 破棄すると、ワークブックを保持しない
+            assertThat(registry.getWorkbookSize(), is(1));
+            cellFormatter.releaseFormulaEvaluator(workbook);
+            assertThat(registry.getWorkbookSize(), is(0));
+        }
+
+    }
+
+    /**
+     * 数式を評価した後に、ワークブックを保持しないこと
+     * @since 0.11
+     */
+    @Test
+    public void testFormulaEvaluator_notRetained() throws Exception {
+
+        // 初期状態では、ワークブックを保持しない
+        POICellFormatter cellFormatter = new POICellFormatter();
+        WeakReference<Workbook> workbookRef = formatFormulaCell(cellFormatter);
+        assertThat(isCollected(workbookRef), is(true));
+        assertThat(cellFormatter.getFormulaEvaluatorRegistry().getWorkbookSize(), is(0));
+
+        // 再利用する場合は、破棄するまで保持する
+        cellFormatter.setReuseFormulaEvaluator(true);
+        workbookRef = formatFormulaCell(cellFormatter);
+        assertThat(cellFormatter.getFormulaEvaluatorRegistry().getWorkbookSize(), is(1));
+
+        cellFormatter.releaseFormulaEvaluator(workbookRef.get());
+        assertThat(isCollected(workbookRef), is(true));
+    }
+
+    /**
+     * 数式のセルを持つワークブックを作成してフォーマットし、ワークブックへの弱参照を返す。
+     * @param cellFormatter フォーマッタ
+     * @return ワークブックへの弱参照
+     */
+    private WeakReference<Workbook> formatFormulaCell(final POICellFormatter cellFormatter) {
+
+        final Workbook workbook = new HSSFWorkbook();
+        final Row row = workbook.createSheet().createRow(0);
+        row.createCell(0).setCellValue(1);
+        final Cell formulaCell = row.createCell(1);
+        formulaCell.setCellFormula("A1*2");
+
+        assertThat(cellFormatter.formatAsString(formulaCell), is("2"));
+        return new WeakReference<>(workbook);
+    }
+
+    /**
+     * GCを実行し、参照先が回収されたかどうか判定する。
+     * @param ref 判定対象の参照
+     * @return true:回収された場合。
+     */
+    private static boolean isCollected(final WeakReference<?> ref) throws InterruptedException {
+        for(int i=0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        return ref.get() == null;
+    }
+
+    /**
+     * 数式の保存されている計算結果を利用する場合
+     * @since 0.11
+     */
+    @Test
+    public void testUseCachedFormulaResult() throws Exception {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        cellFormatter.setUseCachedFormulaResult(true);
+
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            Row row = sheet.createRow(0);
+            Cell valueCell = row.createCell(0);
+            valueCell.setCellValue(1);
+
+            // 計算結果が保存されていない場合は評価する
+            Cell formulaCell = row.createCell(1);
+            formulaCell.setCellFormula("A1*2");
+            assertThat(cellFormatter.formatAsString(formulaCell), is("2"));
+
+            // 計算結果を保存した後に値を変更しても、保存された計算結果を利用する
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateFormulaCellEnum(formulaCell);
+            valueCell.setCellValue(5);
+            assertThat(cellFormatter.formatAsString(formulaCell), is("2"));
+
+            // 評価する場合
+            cellFormatter.setUseCachedFormulaResult(false);
+            cellFormatter.notifyUpdateCell(valueCell);
+            assertThat(cellFormatter.formatAsString(formulaCell), is("10"));
+
+            // 文字列の計算結果
+            Cell textCell = row.createCell(2);
+            textCell.setCellFormula("\"abc\"");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateFormulaCellEnum(textCell);
+            cellFormatter.setUseCachedFormulaResult(true);
+            assertThat(cellFormatter.formatAsString(textCell), is("abc"));
+        }
+
+    }
+
+    /**
+     * 行単位でフォーマットする場合
+     * @since 0.11
+     */
+    @Test
+    public void testFormatRow() throws Exception {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+
+        Sheet sheet = loadSheetByName(new File("src/test/data/cell_format_2010_custom.xlsx"), "書式（数値）");
+
+        CellFormatResult[] results = null;
+        for(Row row : sheet) {
+            final int lastColumn = Math.max(row.getLastCellNum(), 1);
+            final CellFormatResult[] reuse = results;
+            results = cellFormatter.formatRow(row, 0, lastColumn, Locale.JAPANESE, reuse);
+            if(reuse != null && reuse.length >= lastColumn + 1) {
+                assertThat(results, is(sameInstance(reuse)));
+            }
+
+            for(int i=0; i <= lastColumn; i++) {
+                final Cell cell = row.getCell(i);
+                assertThat(results[i].getText(), is(cellFormatter.formatAsString(cell, Locale.JAPANESE)));
+            }
+        }
+
+        // 行がnullの場合
+        results = cellFormatter.formatRow(null, 2, 4, Locale.JAPANESE, null);
+        assertThat(results.length, is(3));
+        for(CellFormatResult result : results) {
+            assertThat(result.getCellType(), is(FormatCellType.Blank));
+            assertThat(result.getText(), is(""));
+        }
+
+    }
+
+    /**
+     * 1904年始まりのファイルを行単位でフォーマットする場合
+     * @since 0.11
+     */
+    @Test
+    public void testFormatRow_date1904() throws Exception {
+
+        for(boolean cache : new boolean[]{true, false}) {
+            POICellFormatter cellFormatter = new POICellFormatter();
+            cellFormatter.setCache(cache);
+
+            int count = 0;
+            for(Sheet sheet : loadSheetForFormat(new File("src/test/data/cell_format_date1904.xls"))) {
+                for(Row row : sheet) {
+                    final int lastColumn = Math.max(row.getLastCellNum(), 1);
+                    final CellFormatResult[] results = cellFormatter.formatRow(row, 0, lastColumn, Locale.JAPANESE, null);
+                    for(int i=0; i <= lastColumn; i++) {
+                        assertThat(results[i].getText(), is(cellFormatter.formatAsString(row.getCell(i), Locale.JAPANESE)));
+                        count++;
+                    }
+                }
+            }
+
+            assertThat(count > 0, is(true));
+        }
+
+    }
+
+    /**
+     * 列を指定して行単位でフォーマットする場合
+     * @since 0.11
+     */
+    @Test
+    public void testFormatRow_columnProjection() throws Exception {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+
+        Sheet sheet = loadSheetByName(new File("src/test/data/cell_format_2010_custom.xlsx"), "書式（数値）");
+
+        BitSet columns = new BitSet();
+        columns.set(1);
+        columns.set(2);
+        columns.set(10);
+
+        for(Row row : sheet) {
+            CellFormatResult[] results = cellFormatter.formatRow(row, columns, Locale.JAPANESE, null);
+            assertThat(results.length, is(3));
+            assertThat(results[0].getText(), is(cellFormatter.formatAsString(row.getCell(1), Locale.JAPANESE)));
+            assertThat(results[1].getText(), is(cellFormatter.formatAsString(row.getCell(2), Locale.JAPANESE)));
+            assertThat(results[2].getText(), is(cellFormatter.formatAsString(row.getCell(10), Locale.JAPANESE)));
+        }
+
+    }
+
     @Test
     public void testFormatExcel2010() {
 
@@ -0,0 +1,229 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import com.github.mygreen.cellformatter.lang.TestUtils;
+import com.github.mygreen.cellformatter.lang.TestUtils.RowFormatAction;
+
+/**
+ * {@link POIWorkbookFormatter}のテスタ
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class POIWorkbookFormatterTest {
+
+    /**
+     * 並列に処理した結果が、シート、行、列の順に並び、{@link POICellFormatter}と一致すること。
+     */
+    @Test
+    public void testFormat() throws Exception {
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final POIWorkbookFormatter workbookFormatter = new POIWorkbookFormatter(pool);
+            assertSameAsPOI(workbookFormatter, new File("src/test/data/cell_format_2010_custom.xlsx"));
+            assertSameAsPOI(workbookFormatter, new File("src/test/data/cell_format_2010_custom_compatible.xls"));
+
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * プールを指定しない場合
+     */
+    @Test
+    public void testFormat_defaultPool() throws Exception {
+
+        final POIWorkbookFormatter workbookFormatter = new POIWorkbookFormatter();
+        assertSameAsPOI(workbookFormatter, new File("src/test/data/cell_format_2010.xlsx"));
+
+        // フォーマットが終わると、ワークブックを保持しない
+        assertThat(workbookFormatter.getCellFormatter().getFormulaEvaluatorRegistry().getWorkbookSize(), is(0));
+    }
+
+    /**
+     * 数式と共有文字列を含むxlsファイルを複数のスレッドで処理した場合、1つのスレッドで処理した結果と一致すること。
+     */
+    @Test
+    public void testFormat_parallelHSSF() throws Exception {
+
+        final byte[] data = createHSSFWorkbook(8, 200);
+
+        final List<String> expected;
+        final ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        try {
+            expected = toTexts(new POIWorkbookFormatter(sequentialPool).format(loadHSSFWorkbook(data), Locale.JAPANESE));
+        } finally {
+            sequentialPool.shutdown();
+        }
+
+        // 数式が評価されていること
+        assertThat(expected.contains("1,0,3:-246,899.00"), is(true));
+        assertThat(expected.contains("1,0,4:名前0-名前0"), is(true));
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final POIWorkbookFormatter workbookFormatter = new POIWorkbookFormatter(pool);
+            for(int i=0; i < 5; i++) {
+                // 読み込み直後のワークブックで、スタイルなどを初めて参照する状態から処理する
+                final List<String> actual = toTexts(workbookFormatter.format(loadHSSFWorkbook(data), Locale.JAPANESE));
+                assertThat(actual, is(expected));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 共有文字列、書式、シート内とシート間の数式を含むxlsファイルを作成する。
+     * @param sheetSize シート数
+     * @param rowSize シートごとの行数
+     * @return ファイルのデータ
+     */
+    private byte[] createHSSFWorkbook(final int sheetSize, final int rowSize) throws Exception {
+
+        try(HSSFWorkbook workbook = new HSSFWorkbook()) {
+            final CellStyle numberStyle = workbook.createCellStyle();
+            numberStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00;[Red]-#,##0.00"));
+
+            final CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy\"年\"m\"月\"d\"日\""));
+
+            for(int s=0; s < sheetSize; s++) {
+                final Sheet sheet = workbook.createSheet("Sheet" + s);
+                for(int r=0; r < rowSize; r++) {
+                    final int n = r + 1;
+                    final Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("名前" + (r % 20));
+
+                    final Cell numberCell = row.createCell(1);
+                    numberCell.setCellValue((r - rowSize / 2) * 1234.5d + s);
+                    numberCell.setCellStyle(numberStyle);
+
+                    final Cell formulaCell = row.createCell(2);
+                    formulaCell.setCellFormula("B" + n + "*2");
+                    formulaCell.setCellStyle(numberStyle);
+
+                    final Cell crossSheetCell = row.createCell(3);
+                    crossSheetCell.setCellFormula("Sheet0!B" + n + "+B" + n);
+                    crossSheetCell.setCellStyle(numberStyle);
+
+                    row.createCell(4).setCellFormula("A" + n + "&\"-\"&Sheet0!A" + n);
+
+                    final Cell dateCell = row.createCell(5);
+                    dateCell.setCellValue(43000 + r);
+                    dateCell.setCellStyle(dateStyle);
+                }
+            }
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private Workbook loadHSSFWorkbook(final byte[] data) throws Exception {
+        return new HSSFWorkbook(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * フォーマット結果を、セルの位置と文字列の一覧に変換する。
+     * @param results フォーマット結果
+     * @return セルの位置と文字列の一覧
+     */
+    private List<String> toTexts(final List<SheetFormatResult> results) {
+
+        final List<String> texts = new ArrayList<>();
+        for(SheetFormatResult sheetResult : results) {
+            for(FormattedRow row : sheetResult.getRows()) {
+                for(int i=0; i < row.getCellCount(); i++) {
+                    texts.add(sheetResult.getSheetIndex() + "," + row.getRowIndex() + "," + row.getColumnIndex(i)
+                            + ":" + row.getResult(i).getText());
+                }
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * 列を指定した場合
+     */
+    @Test
+    public void testFormat_columnProjection() throws Exception {
+
+        final Workbook workbook = TestUtils.loadWorkbook(new File("src/test/data/cell_format_2010_custom.xlsx"));
+
+        final BitSet columns = new BitSet();
+        columns.set(2);
+
+        final POIWorkbookFormatter workbookFormatter = new POIWorkbookFormatter();
+        workbookFormatter.setColumnProjection(columns);
+
+        final POICellFormatter cellFormatter = new POICellFormatter();
+        int count = 0;
+        for(SheetFormatResult sheetResult : workbookFormatter.format(workbook, Locale.JAPANESE)) {
+            final Sheet sheet = workbook.getSheetAt(sheetResult.getSheetIndex());
+            for(FormattedRow formattedRow : sheetResult.getRows()) {
+                final Row row = sheet.getRow(formattedRow.getRowIndex());
+                for(int c=0; c < formattedRow.getCellCount(); c++) {
+                    assertThat(formattedRow.getColumnIndex(c), is(2));
+                    final Cell cell = row.getCell(2);
+                    assertThat(formattedRow.getResult(c).getText(), is(cellFormatter.formatAsString(cell, Locale.JAPANESE)));
+                    count++;
+                }
+            }
+        }
+
+        assertThat(count > 0, is(true));
+    }
+
+    private void assertSameAsPOI(final POIWorkbookFormatter workbookFormatter, final File file) throws Exception {
+
+        TestUtils.assertSameAsPOI(file, Locale.JAPANESE, new POICellFormatter(), new RowFormatAction() {
+
+            @Override
+            public void format(File file, Locale locale, FormattedRowHandler handler) throws Exception {
+
+                final Workbook workbook = TestUtils.loadWorkbook(file);
+                final List<SheetFormatResult> results = workbookFormatter.format(workbook, locale);
+                assertThat(results.size(), is(workbook.getNumberOfSheets()));
+
+                for(int i=0; i < results.size(); i++) {
+                    final SheetFormatResult sheetResult = results.get(i);
+                    assertThat(sheetResult.getSheetIndex(), is(i));
+                    assertThat(sheetResult.getElapsedTime(TimeUnit.NANOSECONDS) >= 0L, is(true));
+                    assertThat(sheetResult.getRows().size(), is(workbook.getSheetAt(i).getPhysicalNumberOfRows()));
+
+                    handler.startSheet(sheetResult.getSheetIndex(), sheetResult.getSheetName());
+                    for(FormattedRow formattedRow : sheetResult.getRows()) {
+                        handler.handleRow(formattedRow);
+                    }
+                    handler.endSheet(sheetResult.getSheetIndex(), sheetResult.getSheetName());
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.github.mygreen.cellformatter.lang.TestUtils;
+import com.github.mygreen.cellformatter.lang.TestUtils.RowFormatAction;
+
+/**
+ * {@link XSSFStreamingCellFormatter}のテスタ
+ *
+ * @since 0.11
+ * @author T.TSUCHIE
+ *
+ */
+public class XSSFStreamingCellFormatterTest {
+
+    /**
+     * ワークブックのモデルを利用した{@link POICellFormatter}と結果が一致すること。
+     */
+    @Test
+    public void testCompareWithPOICellFormatter() throws Exception {
+
+        final String[] fileNames = {
+                "cell_format_2007.xlsx",
+                "cell_format_2010.xlsx",
+                "cell_format_2010_custom.xlsx",
+                "cell_format_2016.xlsx",
+                "cell_format_chinese.xlsx",
+                "cell_format_korean.xlsx",
+                "cell_time.xlsx",
+        };
+
+        for(String fileName : fileNames) {
+            assertSameAsPOI(new File("src/test/data", fileName), Locale.JAPANESE);
+        }
+    }
+
+    /**
+     * 行とシートの通知順序のテスト
+     */
+    @Test
+    public void testHandlerEvents() throws Exception {
+
+        final List<String> events = new ArrayList<>();
+
+        XSSFStreamingCellFormatter cellFormatter = new XSSFStreamingCellFormatter();
+        cellFormatter.format(new File("src/test/data/cell_time.xlsx"), Locale.JAPANESE, new FormattedRowHandler() {
+
+            private int lastRowIndex;
+
+            @Override
+            public void startSheet(int sheetIndex, String sheetName) {
+                events.add("start:" + sheetIndex);
+                lastRowIndex = -1;
+            }
+
+            @Override
+            public void handleRow(FormattedRow row) {
+                assertThat(row.getRowIndex() > lastRowIndex, is(true));
+                lastRowIndex = row.getRowIndex();
+
+                for(int i=0; i < row.getCellCount(); i++) {
+                    assertThat(row.getResultByColumn(row.getColumnIndex(i)), is(sameInstance(row.getResult(i))));
+                }
+            }
+
+            @Override
+            public void endSheet(int sheetIndex, String sheetName) {
+                events.add("end:" + sheetIndex);
+            }
+        });
+
+        assertThat(events.isEmpty(), is(false));
+        for(int i=0; i < events.size() / 2; i++) {
+            assertThat(events.get(i*2), is("start:" + i));
+            assertThat(events.get(i*2+1), is("end:" + i));
+        }
+    }
+
+    /**
+     * 列を指定した場合、対象の列のみが全ての列を処理した結果と一致すること。
+     * @since 0.11
+     */
+    @Test
+    public void testColumnProjection() throws Exception {
+
+        final File file = new File("src/test/data/cell_format_2010_custom.xlsx");
+
+        final XSSFStreamingCellFormatter formatter = new XSSFStreamingCellFormatter();
+        final List<String> expected = new ArrayList<>();
+        formatter.format(file, Locale.JAPANESE, new TextCollector(expected, null));
+
+        final BitSet columns = new BitSet();
+        columns.set(1);
+        columns.set(3);
+        formatter.setColumnProjection(columns);
+
+        final List<String> actual = new ArrayList<>();
+        formatter.format(file, Locale.JAPANESE, new TextCollector(actual, columns));
+
+        final List<String> filtered = new ArrayList<>();
+        for(String text : expected) {
+            final int column = Integer.parseInt(text.substring(0, text.indexOf(':')).split(",")[2]);
+            if(columns.get(column)) {
+                filtered.add(text);
+            }
+        }
+
+        assertThat(actual.isEmpty(), is(false));
+        assertThat(actual, is(filtered));
+    }
+
+    /**
+     * フォーマットしたセルの位置と文字列を収集するハンドラ。
+     */
+    private static class TextCollector implements FormattedRowHandler {
+
+        private final List<String> texts;
+
+        private final BitSet columns;
+
+        private int sheetIndex;
+
+        private TextCollector(final List<String> texts, final BitSet columns) {
+            this.texts = texts;
+            this.columns = columns;
+        }
+
+        @Override
+        public void startSheet(int sheetIndex, String sheetName) {
+            this.sheetIndex = sheetIndex;
+        }
+
+        @Override
+        public void handleRow(FormattedRow row) {
+            for(int i=0; i < row.getCellCount(); i++) {
+                if(columns != null) {
+                    assertThat(columns.get(row.getColumnIndex(i)), is(true));
+                }
+                texts.add(sheetIndex + "," + row.getRowIndex() + "," + row.getColumnIndex(i) + ":" + row.getResult(i).getText());
+            }
+        }
+
+        @Override
+        public void endSheet(int sheetIndex, String sheetName) {
+        }
+
+    }
+
+    private void assertSameAsPOI(final File file, final Locale locale) throws Exception {
+
+        final POICellFormatter poiFormatter = new POICellFormatter();
+        poiFormatter.setConsiderMergedCell(false);
+
+        final XSSFStreamingCellFormatter streamingFormatter = new XSSFStreamingCellFormatter();
+        TestUtils.assertSameAsPOI(file, locale, poiFormatter, new RowFormatAction() {
+
+            @Override
+            public void format(File file, Locale locale, FormattedRowHandler handler) throws Exception {
+                streamingFormatter.format(file, locale, handler);
+            }
+        });
+    }
+
+}
@@ -6,6 +6,7 @@ import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
 import java.util.Date;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -223,6 +224,79 @@ public class ExcelDateUtilsTest {
         
     }
     
+    /**
+     * {@link ExcelDateUtils#convertExcelNumber(long, boolean)}のテスタ
+     * ・秒単位の場合は、{@link ExcelDateUtils#convertExcelNumber(java.util.Date, boolean)}と一致すること。
+     * @since 0.11
+     */
+    @Test
+    public void testConvertToExcelNumber_primitive() {
+        
+        // 基準日付近と、日付の境界
+        final String[] days = {"1899-12-29", "1899-12-31", "1900-02-28", "1900-03-01", "1903-12-31", "1904-01-01",
+                "1970-01-01", "2000-02-29", "2017-12-31", "9999-12-31"};
+        
+        for(String day : days) {
+            assertConvertToExcelNumber(toDate(day + " 00:00:00.000").getTime());
+            assertConvertToExcelNumber(toDate(day + " 00:00:01.000").getTime());
+            assertConvertToExcelNumber(toDate(day + " 12:00:00.000").getTime());
+            assertConvertToExcelNumber(toDate(day + " 23:59:59.000").getTime());
+        }
+        
+        // doubleの除算のみで変換する経過日数(4096日)の前後
+        for(boolean startDate1904 : new boolean[]{false, true}) {
+            final long boundaryTime = ExcelDateUtils.convertJavaTime(4096.0, startDate1904);
+            for(int second=-1000; second <= 1000; second++) {
+                assertConvertToExcelNumber(boundaryTime + second * 1000L);
+            }
+        }
+        
+        // ミリ秒を含む場合
+        final long time = toDate("1900-01-01 23:59:59.999").getTime();
+        assertThat(ExcelDateUtils.convertExcelNumber(time, false), is(ExcelDateUtils.convertExcelNumber(new Date(time), false)));
+        
+        // 秒単位の任意の日時
+        final Random random = new Random(0L);
+        final long maxSeconds = toDate("9999-12-31 23:59:59.000").getTime() / 1000L;
+        final long minSeconds = toDate("1899-12-31 00:00:00.000").getTime() / 1000L;
+        for(int i=0; i < 5000; i++) {
+            final long seconds = minSeconds + (long)(random.nextDouble() * (maxSeconds - minSeconds));
+            assertConvertToExcelNumber(seconds * 1000L);
+        }
+        
+    }
+    
+    /**
+     * {@link ExcelDateUtils#convertExcelNumber(long, boolean)}の結果が、
+     * {@link ExcelDateUtils#convertExcelNumber(java.util.Date, boolean)}と一致することを検証する。
+     * @param time 日時のミリ秒
+     */
+    private void assertConvertToExcelNumber(final long time) {
+        final Date date = new Date(time);
+        assertThat(ExcelDateUtils.convertExcelNumber(time, false), is(ExcelDateUtils.convertExcelNumber(date, false)));
+        assertThat(ExcelDateUtils.convertExcelNumber(time, true), is(ExcelDateUtils.convertExcelNumber(date, true)));
+    }
+    
+    /**
+     * {@link ExcelDateUtils#convertJavaTime(double, boolean)}のテスタ
+     * @since 0.11
+     */
+    @Test
+    public void testConvertToJavaTime() {
+        
+        final double[] values = {-2.0, 0.0, 1.0 + toXlsSeconds(1), 60.0, 61.0, 1462.0, 25569.5, 43100.99999};
+        for(double value : values) {
+            assertThat(ExcelDateUtils.convertJavaTime(value, false), is(ExcelDateUtils.convertJavaDate(value, false).getTime()));
+            assertThat(ExcelDateUtils.convertJavaTime(value, true), is(ExcelDateUtils.convertJavaDate(value, true).getTime()));
+        }
+        
+        // 相互変換
+        final long time = toDate("2017-12-31 12:34:56.000").getTime();
+        assertThat(ExcelDateUtils.convertJavaTime(ExcelDateUtils.convertExcelNumber(time, false), false), is(time));
+        assertThat(ExcelDateUtils.convertJavaTime(ExcelDateUtils.convertExcelNumber(time, true), true), is(time));
+        
+    }
+    
     /**
      * Excel上の数値の秒に変換する
      * @param value
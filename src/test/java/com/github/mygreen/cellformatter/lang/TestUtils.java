@@ -1,8 +1,28 @@
 package com.github.mygreen.cellformatter.lang;
 
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+
+import com.github.mygreen.cellformatter.CellFormatResult;
+import com.github.mygreen.cellformatter.FormattedRow;
+import com.github.mygreen.cellformatter.FormattedRowHandler;
+import com.github.mygreen.cellformatter.POICellFormatter;
 
 /**
  * テストのユーティリティ
+ * @version 0.11
  * @since 2.2
  * @author T.TSUCHIE
  *
@@ -47,4 +67,87 @@ public class TestUtils {
         
     }
     
+    /**
+     * ファイルからワークブックを読み込む。
+     * @since 0.11
+     * @param file 読み込み対象のファイル。
+     * @return 読み込んだワークブック。
+     */
+    public static Workbook loadWorkbook(final File file) throws Exception {
+        try(InputStream in = new FileInputStream(file)) {
+            return WorkbookFactory.create(in);
+        }
+    }
+    
+    /**
+     * ファイルを読み込み、行単位でフォーマットする処理。
+     * @since 0.11
+     */
+    public static interface RowFormatAction {
+        
+        /**
+         * ファイルを読み込み、フォーマットした行をハンドラに渡す。
+         * @param file 読み込み対象のファイル。
+         * @param locale フォーマットするロケール。
+         * @param handler フォーマットした行を受け取るハンドラ。
+         */
+        void format(File file, Locale locale, FormattedRowHandler handler) throws Exception;
+        
+    }
+    
+    /**
+     * 行単位でフォーマットした結果が、ワークブックのモデルを利用した{@link POICellFormatter}と一致するか検証する。
+     * <p>シート名、行の順序、セルの文字列と種類を比較し、1つ以上のセルがフォーマットされていることを検証します。</p>
+     * @since 0.11
+     * @param file 読み込み対象のファイル。
+     * @param locale フォーマットするロケール。
+     * @param expectedFormatter 期待値をフォーマットするフォーマッタ。
+     * @param action 検証対象のフォーマット処理。
+     */
+    public static void assertSameAsPOI(final File file, final Locale locale, final POICellFormatter expectedFormatter,
+            final RowFormatAction action) throws Exception {
+        
+        final Workbook workbook = loadWorkbook(file);
+        
+        final int[] count = new int[1];
+        action.format(file, locale, new FormattedRowHandler() {
+            
+            private Sheet sheet;
+            
+            private int lastRowIndex;
+            
+            @Override
+            public void startSheet(int sheetIndex, String sheetName) {
+                sheet = workbook.getSheetAt(sheetIndex);
+                lastRowIndex = -1;
+                assertThat(sheet.getSheetName(), is(sheetName));
+            }
+            
+            @Override
+            public void handleRow(FormattedRow row) {
+                assertThat(row.getRowIndex() > lastRowIndex, is(true));
+                lastRowIndex = row.getRowIndex();
+                
+                final Row poiRow = sheet.getRow(row.getRowIndex());
+                for(int i=0; i < row.getCellCount(); i++) {
+                    final Cell cell = poiRow.getCell(row.getColumnIndex(i));
+                    final String message = String.format("%s:%s!%s", file.getName(), sheet.getSheetName(),
+                            new CellReference(cell).formatAsString());
+                    
+                    final CellFormatResult expected = expectedFormatter.format(cell, locale);
+                    final CellFormatResult actual = row.getResult(i);
+                    assertThat(message, actual.getText(), is(expected.getText()));
+                    assertThat(message, actual.getCellType(), is(expected.getCellType()));
+                    count[0]++;
+                }
+            }
+            
+            @Override
+            public void endSheet(int sheetIndex, String sheetName) {
+            }
+        });
+        
+        assertThat(count[0] > 0, is(true));
+    }
+    
 }